@@ -13,15 +13,31 @@ import biuoop.DialogManager;
  */
 public class AnimationRunner {
 
+    // system property of a file to write the frame timings to on close
+    public static final String TIMINGS_CSV_PROPERTY = "breakout.timings.csv";
+    // system property that shows the frame timings on the game panel
+    public static final String TIMINGS_HUD_PROPERTY = "breakout.timings.hud";
+
     // gui properties
     private static final String NAME = "BreakOut";
     private static final int WIDTH = 800;
     private static final int HEIGHT = 600;
 
+    // timing properties
+    private static final long NANOS_PER_SECOND = 1000000000L;
+    private static final long NANOS_PER_MILLISECOND = 1000000L;
+    private static final int MAX_STEPS_PER_FRAME = 5;
+    private static final double MAX_FRAME_TIME = 0.25;
+    private static final int TIMED_FRAMES = 1024;
+    // time a fixed step animation wakes up before its next step is due
+    private static final long SLEEP_MARGIN_NANOS = NANOS_PER_MILLISECOND;
+
     // members
     private GUI gui;
     private int framesPerSecond;
     private Sleeper sleeper;
+    private FrameTimings timings;
+    private int runs;
 
     /**
      * Constructs and initializes a new animations runner.
@@ -30,6 +46,8 @@ public class AnimationRunner {
         this.gui = new GUI(NAME, WIDTH, HEIGHT);
         this.framesPerSecond = 60;
         this.sleeper = new Sleeper();
+        this.timings = new FrameTimings(TIMED_FRAMES, NANOS_PER_SECOND / this.framesPerSecond);
+        this.runs = 0;
     }
 
     /**
@@ -59,6 +77,15 @@ public class AnimationRunner {
         return this.getWidth() / 32;
     }
 
+    /**
+     * Return the amount of seconds a step of a fixed step animation takes.
+     *
+     * @return the step time.
+     */
+    public double getStepTime() {
+        return 1.0 / this.framesPerSecond;
+    }
+
     /**
      * Return this gui keyboard sensor.
      *
@@ -78,38 +105,154 @@ public class AnimationRunner {
     }
 
     /**
-     * Closes this gui.
+     * Return the timings of the last frames this runner ran.
+     *
+     * @return the frame timings.
+     */
+    public FrameTimings getFrameTimings() {
+        return this.timings;
+    }
+
+    /**
+     * Closes this gui, writing the frame timings to a CSV file first if
+     * one was set with the TIMINGS_CSV_PROPERTY system property.
      */
     public void closeGUI() {
+        String timingsFile = System.getProperty(TIMINGS_CSV_PROPERTY);
+        if (timingsFile != null) {
+            this.timings.writeCsv(timingsFile);
+        }
+
         this.gui.close();
     }
 
     /**
      * Running the given animations until the animations should stop.
+     * A fixed step animation is advanced in fixed steps and rendered as
+     * often as possible, any other animation is paced by the frame rate.
      *
      * @param animation the animations to run.
      */
     public void run(Animation animation) {
+        this.runs++;
+        if (animation instanceof FixedStepAnimation) {
+            this.runFixedStep((FixedStepAnimation) animation);
+        } else {
+            this.runFramePaced(animation);
+        }
+    }
 
-        int millisecondsPerFrame = 1000 / framesPerSecond;
+    /**
+     * Run the given animation one frame at a time, sleeping what is left
+     * of each frame.
+     * The animation updates and draws itself in a single call, so its
+     * frames are recorded without splitting the two.
+     *
+     * @param animation the animation to run.
+     */
+    private void runFramePaced(Animation animation) {
+
+        long nanosecondsPerFrame = NANOS_PER_SECOND / this.framesPerSecond;
 
         // running the animations loop
         while (!animation.shouldStop()) {
-            long startTime = System.currentTimeMillis(); // timing
+            long startTime = System.nanoTime(); // timing
             DrawSurface d = gui.getDrawSurface();
 
             double dt = 1.0 / this.framesPerSecond;
             animation.doOneFrame(d, dt);
+            long drawnTime = System.nanoTime();
 
             gui.show(d);
+            long shownTime = System.nanoTime();
 
-            long usedTime = System.currentTimeMillis() - startTime;
-            long milliSecondLeftToSleep = millisecondsPerFrame - usedTime;
+            long usedTime = shownTime - startTime;
+            long milliSecondLeftToSleep = (nanosecondsPerFrame - usedTime) / NANOS_PER_MILLISECOND;
             if (milliSecondLeftToSleep > 0) {
                 this.sleeper.sleepFor(milliSecondLeftToSleep);
             }
+
+            this.timings.recordUnsplit(drawnTime - startTime, shownTime - drawnTime,
+                    System.nanoTime() - shownTime);
         }
+    }
+
+    /**
+     * Run the given animation with a fixed step accumulator: the time
+     * passed since the last frame is added up and consumed in fixed
+     * steps, and what is left of it decides how far between the last
+     * two steps the frame is drawn.
+     * Slow frames are caught up with at most MAX_STEPS_PER_FRAME steps,
+     * time beyond that is dropped so the game slows down instead of
+     * falling further behind.
+     * Between frames the runner sleeps until the next step is due. When a
+     * step runs another animation, like the pause screen, the time it took
+     * is dropped, so the game goes on from where it stopped.
+     * The update timing of a frame is the time its steps took, not
+     * counting a step that ran another animation.
+     *
+     * @param animation the animation to run.
+     */
+    private void runFixedStep(FixedStepAnimation animation) {
+
+        double stepTime = 1.0 / this.framesPerSecond;
+        double accumulator = 0;
+        long previousTime = System.nanoTime();
+        int runsBefore = this.runs;
 
+        while (true) {
+            long currentTime = System.nanoTime();
+            double frameTime = (currentTime - previousTime) / (double) NANOS_PER_SECOND;
+            previousTime = currentTime;
+            accumulator += Math.min(frameTime, MAX_FRAME_TIME);
 
+            int steps = 0;
+            long updateTime = 0;
+            while (accumulator >= stepTime && steps < MAX_STEPS_PER_FRAME) {
+                if (animation.shouldStop()) {
+                    return;
+                }
+
+                long stepStart = System.nanoTime();
+                animation.step(stepTime);
+                long stepEnd = System.nanoTime();
+                accumulator -= stepTime;
+                steps++;
+
+                // a nested animation ran, do not catch up with its time
+                if (this.runs == runsBefore) {
+                    updateTime += stepEnd - stepStart;
+                } else {
+                    runsBefore = this.runs;
+                    accumulator = 0;
+                    currentTime = System.nanoTime();
+                    previousTime = currentTime;
+                    break;
+                }
+            }
+
+            // drop the whole steps that could not be caught up with
+            if (accumulator >= stepTime) {
+                accumulator %= stepTime;
+            }
+            long updatedTime = System.nanoTime();
+
+            DrawSurface d = gui.getDrawSurface();
+            animation.render(d, accumulator / stepTime);
+            long drawnTime = System.nanoTime();
+
+            gui.show(d);
+            long shownTime = System.nanoTime();
+
+            long nextStepTime = previousTime + (long) ((stepTime - accumulator) * NANOS_PER_SECOND);
+            long milliSecondLeftToSleep = (nextStepTime - shownTime - SLEEP_MARGIN_NANOS)
+                    / NANOS_PER_MILLISECOND;
+            if (milliSecondLeftToSleep > 0) {
+                this.sleeper.sleepFor(milliSecondLeftToSleep);
+            }
+
+            this.timings.record(updateTime, drawnTime - updatedTime,
+                    shownTime - drawnTime, System.nanoTime() - shownTime);
+        }
     }
 }
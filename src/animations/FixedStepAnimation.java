@@ -0,0 +1,31 @@
+package animations;
+
+import biuoop.DrawSurface;
+
+/**
+ * An animation whose state is advanced in fixed time steps, separately
+ * from drawing it.
+ * The runner may call step several times between two renders, or render
+ * several times between two steps, so the state stays independent of
+ * the rendering rate.
+ *
+ * @author Shahaf Mordechay
+ */
+public interface FixedStepAnimation extends Animation {
+
+    /**
+     * Advance the animation state by one fixed step.
+     *
+     * @param dt the fixed amount of seconds a step takes.
+     */
+    void step(double dt);
+
+    /**
+     * Draw the animation state without advancing it.
+     *
+     * @param d     the draw surface to draw on.
+     * @param alpha how far the time is between the previous step and
+     *              the last one, from 0 to 1.
+     */
+    void render(DrawSurface d, double alpha);
+}
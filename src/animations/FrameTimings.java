@@ -0,0 +1,188 @@
+package animations;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Arrays;
+
+/**
+ * The time each of the last frames spent in every phase of the animation
+ * loop, in nanoseconds.
+ * The frames are kept in a ring buffer that the animation loop writes to
+ * without locking: a frame is written first and only then published by
+ * increasing the frames count, so a reader never waits for the loop.
+ * A frame of an animation that updates and draws itself in a single call
+ * is not split: its update and draw timings are NOT_SPLIT, and are left
+ * out of their percentiles and empty in the CSV file.
+ *
+ * @author Shahaf Mordechay
+ */
+public class FrameTimings {
+
+    // frame phases
+    public static final int UPDATE = 0;
+    public static final int DRAW = 1;
+    public static final int SHOW = 2;
+    public static final int SLEEP = 3;
+    public static final int TOTAL = 4;
+
+    // the update and draw timings of a frame that is not split
+    public static final long NOT_SPLIT = -1;
+
+    private static final String[] PHASE_NAMES = {"update", "draw", "show", "sleep", "total"};
+
+    // members
+    private long[][] samples;
+    private int capacity;
+    private long frameBudget;
+    private volatile long count;
+    private volatile long droppedFrames;
+
+    /**
+     * Constructs an empty frame timings buffer.
+     *
+     * @param capacity    the number of last frames to keep.
+     * @param frameBudget the nanoseconds a frame may take before it is
+     *                    counted as dropped.
+     */
+    public FrameTimings(int capacity, long frameBudget) {
+        this.samples = new long[PHASE_NAMES.length][capacity];
+        this.capacity = capacity;
+        this.frameBudget = frameBudget;
+        this.count = 0;
+        this.droppedFrames = 0;
+    }
+
+    /**
+     * Record the phases timings of a frame.
+     * Must only be called by the animation loop.
+     *
+     * @param update nanoseconds spent updating the animation.
+     * @param draw   nanoseconds spent drawing the animation.
+     * @param show   nanoseconds spent showing the drawing.
+     * @param sleep  nanoseconds spent sleeping.
+     */
+    public void record(long update, long draw, long show, long sleep) {
+        int index = (int) (this.count % this.capacity);
+        long total = update + draw + show + sleep;
+
+        this.samples[UPDATE][index] = update;
+        this.samples[DRAW][index] = draw;
+        this.samples[SHOW][index] = show;
+        this.samples[SLEEP][index] = sleep;
+        this.samples[TOTAL][index] = total;
+
+        if (total - sleep > this.frameBudget) {
+            this.droppedFrames++;
+        }
+
+        this.count++;
+    }
+
+    /**
+     * Record the timings of a frame that is not split into its update and
+     * draw phases.
+     * Must only be called by the animation loop.
+     *
+     * @param frame nanoseconds spent updating and drawing the animation.
+     * @param show  nanoseconds spent showing the drawing.
+     * @param sleep nanoseconds spent sleeping.
+     */
+    public void recordUnsplit(long frame, long show, long sleep) {
+        int index = (int) (this.count % this.capacity);
+        long total = frame + show + sleep;
+
+        this.samples[UPDATE][index] = NOT_SPLIT;
+        this.samples[DRAW][index] = NOT_SPLIT;
+        this.samples[SHOW][index] = show;
+        this.samples[SLEEP][index] = sleep;
+        this.samples[TOTAL][index] = total;
+
+        if (total - sleep > this.frameBudget) {
+            this.droppedFrames++;
+        }
+
+        this.count++;
+    }
+
+    /**
+     * Return the number of frames recorded so far.
+     *
+     * @return the number of frames recorded.
+     */
+    public long getCount() {
+        return this.count;
+    }
+
+    /**
+     * Return the number of recorded frames that took longer than the frame
+     * budget, not counting their sleep.
+     *
+     * @return the number of dropped frames.
+     */
+    public long getDroppedFrames() {
+        return this.droppedFrames;
+    }
+
+    /**
+     * Return the given percentile of a phase timings over the kept frames.
+     * Frames that are not split are left out of the update and draw
+     * percentiles.
+     *
+     * @param phase      the phase, one of UPDATE, DRAW, SHOW, SLEEP and TOTAL.
+     * @param percentile the percentile, from 0 to 100.
+     * @return the percentile in nanoseconds, 0 if no frame was recorded.
+     */
+    public long percentile(int phase, double percentile) {
+        int kept = (int) Math.min(this.count, this.capacity);
+        long[] sorted = new long[kept];
+        int size = 0;
+        for (int i = 0; i < kept; i++) {
+            if (this.samples[phase][i] != NOT_SPLIT) {
+                sorted[size++] = this.samples[phase][i];
+            }
+        }
+
+        if (size == 0) {
+            return 0;
+        }
+
+        Arrays.sort(sorted, 0, size);
+
+        int index = (int) Math.ceil(percentile / 100 * size) - 1;
+        return sorted[Math.max(0, Math.min(index, size - 1))];
+    }
+
+    /**
+     * Write the kept frames timings to a CSV file, oldest frame first.
+     *
+     * @param fileName the file to write to.
+     */
+    public void writeCsv(String fileName) {
+        long frames = this.count;
+        long first = Math.max(0, frames - this.capacity);
+
+        try (PrintWriter out = new PrintWriter(new FileWriter(fileName))) {
+            StringBuilder header = new StringBuilder("frame");
+            for (String name : PHASE_NAMES) {
+                header.append(',').append(name).append("_ns");
+            }
+            out.println(header);
+
+            for (long frame = first; frame < frames; frame++) {
+                int index = (int) (frame % this.capacity);
+                StringBuilder line = new StringBuilder(Long.toString(frame));
+                for (long[] phase : this.samples) {
+                    line.append(',');
+                    if (phase[index] != NOT_SPLIT) {
+                        line.append(phase[index]);
+                    }
+                }
+                out.println(line);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed writing frame timings: " + fileName);
+            e.printStackTrace(System.err);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package benchmarks;
+
+import collidables.Block;
+import game.GameEnvironment;
+import geometry.Point;
+import geometry.Rectangle;
+import other.Velocity;
+import sprites.Ball;
+
+import java.awt.Color;
+
+/**
+ * Measures a full ball step: a fast ball bouncing forever in a closed
+ * box with rows of blocks at its top.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BallStepBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int WALL = 25;
+    private static final int ROWS = 6;
+    private static final int COLS = 15;
+    private static final double DT = 1.0 / 60;
+
+    // members
+    private Ball ball;
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "Ball.timePassed";
+    }
+
+    /**
+     * Create the box, the blocks and the ball.
+     */
+    public void setUp() {
+        GameEnvironment environment = new GameEnvironment();
+
+        environment.addCollidable(new Block(new Rectangle(0, 0, WIDTH, WALL), Color.gray));
+        environment.addCollidable(new Block(new Rectangle(0, HEIGHT - WALL, WIDTH, WALL), Color.gray));
+        environment.addCollidable(new Block(new Rectangle(0, 0, WALL, HEIGHT), Color.gray));
+        environment.addCollidable(new Block(new Rectangle(WIDTH - WALL, 0, WALL, HEIGHT), Color.gray));
+
+        double blockWidth = (WIDTH - 2 * WALL) / (double) COLS;
+        for (int row = 0; row < ROWS; row++) {
+            for (int col = 0; col < COLS; col++) {
+                Rectangle rect = new Rectangle((int) (WALL + col * blockWidth),
+                        100 + row * 20, blockWidth, 20);
+                environment.addCollidable(new Block(rect, Color.blue));
+            }
+        }
+
+        this.ball = new Ball(new Point(WIDTH / 2, HEIGHT - 100), 5, Color.white, environment);
+        this.ball.setVelocity(Velocity.fromAngleAndSpeed(33, 600));
+    }
+
+    /**
+     * Move the ball by a single frame.
+     *
+     * @return the ball x coordinate.
+     */
+    public int run() {
+        this.ball.timePassed(DT);
+        return (int) this.ball.getCenter().getX();
+    }
+}
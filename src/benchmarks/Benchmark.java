@@ -0,0 +1,31 @@
+package benchmarks;
+
+/**
+ * A single operation to measure, repeated by the benchmark runner.
+ *
+ * @author Shahaf Mordechay
+ */
+public interface Benchmark {
+
+    /**
+     * Return the name the benchmark results are reported under.
+     *
+     * @return the benchmark name.
+     */
+    String getName();
+
+    /**
+     * Prepare everything the operation needs, called once before it is
+     * measured.
+     */
+    void setUp();
+
+    /**
+     * Run the measured operation once.
+     * The returned value depends on the operation work, so that work
+     * cannot be optimized away.
+     *
+     * @return a value computed by the operation.
+     */
+    int run();
+}
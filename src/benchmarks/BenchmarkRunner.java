@@ -0,0 +1,302 @@
+package benchmarks;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Runs the benchmarks of the game hot paths and writes their results as
+ * JSON, in the layout of JMH results files.
+ * Every benchmark is warmed up first, then measured in fixed length
+ * iterations, and scored by its average time per operation and the
+ * bytes it allocates per operation.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BenchmarkRunner {
+
+    // default run properties
+    private static final String DEFAULT_OUTPUT = "bench-results.json";
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASUREMENT_ITERATIONS = 10;
+    private static final long ITERATION_NANOS = 200000000L;
+    private static final long BATCH_NANOS = 100000L;
+    private static final int ALLOCATION_OPERATIONS = 10000;
+
+    // z score of a 99.9% confidence interval
+    private static final double CONFIDENCE_Z = 3.29;
+
+    // keeps the operations results reachable, so they are not optimized away
+    private static volatile int sink;
+
+    /**
+     * Create all the benchmarks of the game.
+     *
+     * @return the game benchmarks.
+     */
+    public static List<Benchmark> createBenchmarks() {
+        List<Benchmark> benchmarks = new ArrayList<>();
+
+        benchmarks.add(new CollisionBenchmark(10));
+        benchmarks.add(new CollisionBenchmark(100));
+        benchmarks.add(new CollisionBenchmark(1000));
+        benchmarks.add(new CollisionBenchmark(10000));
+        benchmarks.add(new LineBenchmark());
+        benchmarks.add(new RectangleBenchmark());
+        benchmarks.add(new ClosestIntersectionBenchmark());
+        benchmarks.add(new BallStepBenchmark());
+        benchmarks.add(new SpriteUpdateBenchmark(1000));
+        benchmarks.add(new StaticLayerBenchmark("definitions/hard_level_definitions.txt", 2));
+        benchmarks.add(new WorldStepBenchmark("definitions/hard_level_definitions.txt", 2));
+        benchmarks.add(new WorldStepBenchmark("definitions/hard_level_definitions.txt", 2, 500));
+        benchmarks.add(new LevelParsingBenchmark("definitions/easy_level_definitions.txt"));
+        benchmarks.add(new LevelParsingBenchmark("definitions/medium_level_definitions.txt"));
+        benchmarks.add(new LevelParsingBenchmark("definitions/hard_level_definitions.txt"));
+        benchmarks.add(new LevelParsingBenchmark("definitions/hard_level_definitions.txt", 100));
+        benchmarks.add(new BlockLayoutBenchmark(250, 400));
+        benchmarks.add(new HighScoresBenchmark(10));
+
+        return benchmarks;
+    }
+
+    /**
+     * Measure the given benchmark.
+     *
+     * @param benchmark the benchmark to measure.
+     * @return the nanoseconds per operation of every measurement iteration.
+     */
+    public static double[] measure(Benchmark benchmark) {
+        benchmark.setUp();
+        int batch = batchSize(benchmark);
+
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            iteration(benchmark, batch);
+        }
+
+        double[] scores = new double[MEASUREMENT_ITERATIONS];
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            scores[i] = iteration(benchmark, batch);
+        }
+
+        return scores;
+    }
+
+    /**
+     * Measure the bytes the given benchmark allocates per operation, by
+     * the memory the thread allocates while running it.
+     * The benchmark should be measured first, so it is warmed up.
+     *
+     * @param benchmark the benchmark to measure.
+     * @return the allocated bytes per operation, -1 if the virtual machine
+     *         cannot measure allocations.
+     */
+    public static double allocationPerOperation(Benchmark benchmark) {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)) {
+            return -1;
+        }
+
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported()) {
+            return -1;
+        }
+
+        allocations.setThreadAllocatedMemoryEnabled(true);
+        long thread = Thread.currentThread().getId();
+        int result = 0;
+
+        long before = allocations.getThreadAllocatedBytes(thread);
+        for (int i = 0; i < ALLOCATION_OPERATIONS; i++) {
+            result += benchmark.run();
+        }
+        long after = allocations.getThreadAllocatedBytes(thread);
+
+        sink = result;
+        return (after - before) / (double) ALLOCATION_OPERATIONS;
+    }
+
+    /**
+     * Find how many operations to run between two clock reads, so reading
+     * the clock does not add to fast operations.
+     *
+     * @param benchmark the benchmark to run.
+     * @return the number of operations in a batch.
+     */
+    private static int batchSize(Benchmark benchmark) {
+        int batch = 1;
+        int result = 0;
+
+        while (true) {
+            long start = System.nanoTime();
+            for (int i = 0; i < batch; i++) {
+                result += benchmark.run();
+            }
+
+            if (System.nanoTime() - start >= BATCH_NANOS) {
+                sink = result;
+                return batch;
+            }
+            batch *= 2;
+        }
+    }
+
+    /**
+     * Run the benchmark operation in batches for the length of an iteration.
+     *
+     * @param benchmark the benchmark to run.
+     * @param batch     the number of operations in a batch.
+     * @return the average nanoseconds per operation.
+     */
+    private static double iteration(Benchmark benchmark, int batch) {
+        int result = 0;
+        long operations = 0;
+        long start = System.nanoTime();
+        long elapsed;
+
+        do {
+            for (int i = 0; i < batch; i++) {
+                result += benchmark.run();
+            }
+            operations += batch;
+            elapsed = System.nanoTime() - start;
+        } while (elapsed < ITERATION_NANOS);
+
+        sink = result;
+        return elapsed / (double) operations;
+    }
+
+    /**
+     * Return the average of the given scores.
+     *
+     * @param scores the scores.
+     * @return the scores average.
+     */
+    private static double mean(double[] scores) {
+        double sum = 0;
+        for (double score : scores) {
+            sum += score;
+        }
+
+        return sum / scores.length;
+    }
+
+    /**
+     * Return the half width of the 99.9% confidence interval of the
+     * given scores average.
+     *
+     * @param scores the scores.
+     * @return the average error.
+     */
+    private static double error(double[] scores) {
+        double mean = mean(scores);
+        double squares = 0;
+        for (double score : scores) {
+            squares += (score - mean) * (score - mean);
+        }
+
+        double deviation = Math.sqrt(squares / (scores.length - 1));
+        return CONFIDENCE_Z * deviation / Math.sqrt(scores.length);
+    }
+
+    /**
+     * Write the results of a benchmark as a JSON object.
+     *
+     * @param out        the writer to write to.
+     * @param name       the benchmark name.
+     * @param scores     the benchmark measurement scores.
+     * @param allocation the bytes allocated per operation, -1 if unknown.
+     */
+    private static void writeResult(PrintWriter out, String name, double[] scores,
+                                    double allocation) {
+        double mean = mean(scores);
+        double error = error(scores);
+
+        out.println("    {");
+        out.println("        \"benchmark\" : \"" + name + "\",");
+        out.println("        \"mode\" : \"avgt\",");
+        out.println("        \"threads\" : 1,");
+        out.println("        \"warmupIterations\" : " + WARMUP_ITERATIONS + ",");
+        out.println("        \"measurementIterations\" : " + MEASUREMENT_ITERATIONS + ",");
+        out.println("        \"primaryMetric\" : {");
+        out.println("            \"score\" : " + format(mean) + ",");
+        out.println("            \"scoreError\" : " + format(error) + ",");
+        out.println("            \"scoreConfidence\" : [ " + format(mean - error)
+                + ", " + format(mean + error) + " ],");
+        out.println("            \"scoreUnit\" : \"ns/op\",");
+
+        StringBuilder raw = new StringBuilder();
+        for (int i = 0; i < scores.length; i++) {
+            raw.append(i == 0 ? "" : ", ").append(format(scores[i]));
+        }
+        out.println("            \"rawData\" : [ [ " + raw + " ] ]");
+
+        if (allocation < 0) {
+            out.println("        }");
+        } else {
+            out.println("        },");
+            out.println("        \"secondaryMetrics\" : {");
+            out.println("            \"gc.alloc.rate.norm\" : {");
+            out.println("                \"score\" : " + format(allocation) + ",");
+            out.println("                \"scoreUnit\" : \"B/op\"");
+            out.println("            }");
+            out.println("        }");
+        }
+        out.print("    }");
+    }
+
+    /**
+     * Format a score with a dot as the decimal separator.
+     *
+     * @param value the score.
+     * @return the formatted score.
+     */
+    private static String format(double value) {
+        return String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    /**
+     * Run the benchmarks, print a summary and write the results file.
+     * Arguments: results file (default bench-results.json), and an
+     * optional text the names of the benchmarks to run must contain.
+     *
+     * @param args arguments passed to main.
+     */
+    public static void main(String[] args) {
+        String output = args.length > 0 ? args[0] : DEFAULT_OUTPUT;
+        String filter = args.length > 1 ? args[1] : "";
+
+        try (PrintWriter out = new PrintWriter(new FileWriter(output))) {
+            out.println("[");
+            boolean first = true;
+
+            for (Benchmark benchmark : createBenchmarks()) {
+                if (!benchmark.getName().contains(filter)) {
+                    continue;
+                }
+
+                double[] scores = measure(benchmark);
+                double allocation = allocationPerOperation(benchmark);
+                System.out.println(String.format(Locale.ROOT,
+                        "%-75s %12.3f +- %10.3f ns/op %10.1f B/op",
+                        benchmark.getName(), mean(scores), error(scores), allocation));
+
+                if (!first) {
+                    out.println(",");
+                }
+                writeResult(out, benchmark.getName(), scores, allocation);
+                first = false;
+            }
+
+            out.println();
+            out.println("]");
+        } catch (IOException e) {
+            System.err.println("Failed writing results file: " + output);
+            e.printStackTrace(System.err);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package benchmarks;
+
+import readers.LevelSpecificationReader;
+
+import java.util.Random;
+
+/**
+ * Measures parsing a level with a large layout of blocks, like the
+ * layouts of generated levels, made of random standard blocks and spaces.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BlockLayoutBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final String SYMBOLS = "Gbyrgpwco-";
+    private static final long SEED = 23;
+
+    // members
+    private int rows;
+    private int columns;
+    private String levelText;
+
+    /**
+     * Constructs a new block layout benchmark.
+     *
+     * @param rows    the number of rows in the layout.
+     * @param columns the number of cells in a row.
+     */
+    public BlockLayoutBenchmark(int rows, int columns) {
+        this.rows = rows;
+        this.columns = columns;
+    }
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "LevelSpecificationReader.levelFromText[" + this.rows + "x" + this.columns + " layout]";
+    }
+
+    /**
+     * Create the level text.
+     */
+    public void setUp() {
+        Random random = new Random(SEED);
+        StringBuilder text = new StringBuilder();
+
+        text.append("level_name:Layout\n");
+        text.append("ball_velocities:45,550\n");
+        text.append("background:color(black)\n");
+        text.append("paddle_speed:650\n");
+        text.append("paddle_width:160\n");
+        text.append("block_definitions:definitions/standard_block_definitions.txt\n");
+        text.append("blocks_start_x:25\n");
+        text.append("blocks_start_y:80\n");
+        text.append("row_height:25\n");
+        text.append("num_blocks:0\n");
+        text.append("START_BLOCKS\n");
+
+        for (int row = 0; row < this.rows; row++) {
+            for (int column = 0; column < this.columns; column++) {
+                text.append(SYMBOLS.charAt(random.nextInt(SYMBOLS.length())));
+            }
+            text.append('\n');
+        }
+
+        text.append("END_BLOCKS\n");
+        this.levelText = text.toString();
+    }
+
+    /**
+     * Parse the level once.
+     *
+     * @return the number of blocks in the level.
+     */
+    public int run() {
+        return new LevelSpecificationReader().levelFromText(this.levelText).blocks().size();
+    }
+}
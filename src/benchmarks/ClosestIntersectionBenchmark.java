@@ -0,0 +1,63 @@
+package benchmarks;
+
+import geometry.Line;
+import geometry.Rectangle;
+
+import java.util.Random;
+
+/**
+ * Measures the closest intersection point of random lines with a
+ * rectangle among them.
+ *
+ * @author Shahaf Mordechay
+ */
+public class ClosestIntersectionBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final int SIZE = 300;
+    private static final int LINES = 256;
+    private static final long SEED = 42;
+
+    // members
+    private Rectangle rectangle;
+    private Line[] lines;
+    private int next;
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "Line.closestIntersectionToStartOfLine";
+    }
+
+    /**
+     * Create a rectangle in the middle of the area and random lines over
+     * the whole area.
+     */
+    public void setUp() {
+        this.rectangle = new Rectangle(SIZE / 3, SIZE / 3, SIZE / 3, SIZE / 3);
+
+        Random random = new Random(SEED);
+        this.lines = new Line[LINES];
+        for (int i = 0; i < LINES; i++) {
+            this.lines[i] = new Line(random.nextDouble() * SIZE, random.nextDouble() * SIZE,
+                    random.nextDouble() * SIZE, random.nextDouble() * SIZE);
+        }
+
+        this.next = 0;
+    }
+
+    /**
+     * Find the closest intersection of the next line with the rectangle.
+     *
+     * @return 1 if the line intersects the rectangle, 0 otherwise.
+     */
+    public int run() {
+        Line line = this.lines[this.next];
+        this.next = (this.next + 1) % LINES;
+
+        return line.closestIntersectionToStartOfLine(this.rectangle) == null ? 0 : 1;
+    }
+}
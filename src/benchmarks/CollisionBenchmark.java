@@ -0,0 +1,92 @@
+package benchmarks;
+
+import collidables.Block;
+import game.GameEnvironment;
+import geometry.Line;
+import geometry.Rectangle;
+
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * Measures finding the closest collision of a short ball trajectory in
+ * an environment of blocks laid out in a grid over the screen.
+ *
+ * @author Shahaf Mordechay
+ */
+public class CollisionBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+    private static final int TRAJECTORIES = 256;
+    private static final long SEED = 42;
+
+    // members
+    private int numOfBlocks;
+    private GameEnvironment environment;
+    private Line[] trajectories;
+    private int next;
+
+    /**
+     * Constructs a new collision benchmark.
+     *
+     * @param numOfBlocks the number of blocks in the environment.
+     */
+    public CollisionBenchmark(int numOfBlocks) {
+        this.numOfBlocks = numOfBlocks;
+    }
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "GameEnvironment.getClosestCollision[blocks=" + this.numOfBlocks + "]";
+    }
+
+    /**
+     * Lay out the blocks and create random trajectories of 5 to 50 pixels,
+     * about the distance a ball moves in a frame.
+     */
+    public void setUp() {
+        this.environment = new GameEnvironment();
+
+        int cols = (int) Math.ceil(Math.sqrt(this.numOfBlocks * (double) WIDTH / HEIGHT));
+        int rows = (int) Math.ceil(this.numOfBlocks / (double) cols);
+        double blockWidth = WIDTH / (double) cols;
+        double blockHeight = HEIGHT / (double) rows;
+
+        for (int i = 0; i < this.numOfBlocks; i++) {
+            Rectangle rect = new Rectangle((int) (i % cols * blockWidth),
+                    (int) (i / cols * blockHeight), blockWidth - 2, blockHeight - 2);
+            this.environment.addCollidable(new Block(rect, Color.blue));
+        }
+
+        Random random = new Random(SEED);
+        this.trajectories = new Line[TRAJECTORIES];
+        for (int i = 0; i < TRAJECTORIES; i++) {
+            double x = random.nextDouble() * WIDTH;
+            double y = random.nextDouble() * HEIGHT;
+            double angle = random.nextDouble() * 2 * Math.PI;
+            double length = 5 + random.nextDouble() * 45;
+            this.trajectories[i] = new Line(x, y,
+                    x + Math.cos(angle) * length, y + Math.sin(angle) * length);
+        }
+
+        this.next = 0;
+    }
+
+    /**
+     * Find the closest collision of the next trajectory.
+     *
+     * @return 1 if there was a collision, 0 otherwise.
+     */
+    public int run() {
+        Line trajectory = this.trajectories[this.next];
+        this.next = (this.next + 1) % TRAJECTORIES;
+
+        return this.environment.getClosestCollision(trajectory) == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import other.ColorsParser;
+import other.Fill;
+
+import java.awt.Color;
+
+/**
+ * Checks that fill definitions are parsed whatever white space is around
+ * them, as they are written after the colon of a "fill: ..." property.
+ * The images are read from the class path, so the resources directory
+ * must be on it.
+ * Exits with status 1 if a definition is not parsed to its fill.
+ *
+ * @author Shahaf Mordechay
+ */
+public class ColorsParserTest {
+
+    // an image that is in the resources
+    private static final String IMAGE = "block_images/leopard.jpg";
+
+    /**
+     * Parse every definition and check its fill.
+     *
+     * @param args not used.
+     */
+    public static void main(String[] args) {
+        boolean passed = true;
+
+        passed &= checkImage("image(" + IMAGE + ")");
+        passed &= checkImage(" image(" + IMAGE + ")");
+        passed &= checkImage("\timage(" + IMAGE + ") ");
+        passed &= checkColor("color(red)", Color.red);
+        passed &= checkColor(" color(red)", Color.red);
+        passed &= checkColor(" color(RGB(10,20,30))", new Color(10, 20, 30));
+
+        if (!passed) {
+            System.err.println("A fill definition was not parsed");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Check the given definition is parsed to a fill of the test image.
+     *
+     * @param definition the fill definition.
+     * @return true if the fill is the test image.
+     */
+    private static boolean checkImage(String definition) {
+        Fill fill = ColorsParser.fillFromString(definition);
+        boolean passed = fill != null && fill.getImage() != null
+                && IMAGE.equals(fill.getImageName());
+
+        System.out.println("\"" + definition + "\": " + (passed ? "ok" : "failed"));
+        return passed;
+    }
+
+    /**
+     * Check the given definition is parsed to a fill of the given color.
+     *
+     * @param definition the fill definition.
+     * @param color      the expected color.
+     * @return true if the fill is of the expected color.
+     */
+    private static boolean checkColor(String definition, Color color) {
+        Fill fill = ColorsParser.fillFromString(definition);
+        boolean passed = fill != null && color.equals(fill.getColor());
+
+        System.out.println("\"" + definition + "\": " + (passed ? "ok" : "failed"));
+        return passed;
+    }
+}
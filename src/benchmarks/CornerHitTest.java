@@ -0,0 +1,104 @@
+package benchmarks;
+
+import collidables.Block;
+import game.GameEnvironment;
+import geometry.Point;
+import geometry.Rectangle;
+import hitlisteners.HitListener;
+import sprites.Ball;
+
+import java.awt.Color;
+import java.util.Random;
+
+/**
+ * Checks that a ball fired at a block corner hits the block exactly once.
+ * Every ball is fired from a random distance and at a random angle at a
+ * point close to the upper left corner of a single block, and is moved
+ * until it is well past the block, so any hit after the first one is a
+ * ball that kept moving into the block after it bounced.
+ * Exits with status 1 if a ball hits the block more than once.
+ *
+ * @author Shahaf Mordechay
+ */
+public class CornerHitTest {
+
+    // test properties
+    private static final long SEED = 1;
+    private static final int RUNS = 10000;
+    private static final int FRAMES = 120;
+    private static final double DT = 1.0 / 60;
+    private static final int RADIUS = 5;
+    private static final double SPEED = 600;
+
+    // the block corner aimed at, and how far from it the balls are aimed
+    private static final int CORNER_X = 300;
+    private static final int CORNER_Y = 200;
+    private static final double AIM_SPREAD = 2 * RADIUS;
+
+    /**
+     * Fire the balls and count the runs that hit the block more than once.
+     *
+     * @param args not used.
+     */
+    public static void main(String[] args) {
+        Random random = new Random(SEED);
+        int failed = 0;
+        int missed = 0;
+
+        for (int i = 0; i < RUNS; i++) {
+            int hits = fire(random);
+            if (hits > 1) {
+                failed++;
+            } else if (hits == 0) {
+                missed++;
+            }
+        }
+
+        System.out.println("corner hits: " + RUNS + " runs, " + failed + " hit more than once, "
+                + missed + " missed");
+
+        if (failed > 0) {
+            System.err.println("A ball hit a block corner more than once");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Fire a single ball at the block corner and return the number of
+     * times it hit the block.
+     *
+     * @param random the source of the ball start and direction.
+     * @return the number of hits.
+     */
+    private static int fire(Random random) {
+        GameEnvironment environment = new GameEnvironment();
+        Block block = new Block(new Rectangle(CORNER_X, CORNER_Y, 100, 40), Color.GRAY);
+        environment.addCollidable(block);
+
+        final int[] hits = {0};
+        block.addHitListener(new HitListener() {
+            @Override
+            public void hitEvent(Block beingHit, Ball hitter) {
+                hits[0]++;
+            }
+        });
+
+        // coming from the upper left, aimed around the corner
+        double angle = Math.toRadians(10 + random.nextDouble() * 70);
+        double distance = 50 + random.nextDouble() * 100;
+        double aimX = CORNER_X + (random.nextDouble() * 2 - 1) * AIM_SPREAD;
+        double aimY = CORNER_Y + (random.nextDouble() * 2 - 1) * AIM_SPREAD;
+        double dirX = Math.cos(angle);
+        double dirY = Math.sin(angle);
+
+        Point start = new Point(aimX - dirX * distance, aimY - dirY * distance);
+        Ball ball = new Ball(start, RADIUS, Color.WHITE, environment);
+        ball.setVelocity(dirX * SPEED, dirY * SPEED);
+
+        for (int frame = 0; frame < FRAMES; frame++) {
+            ball.timePassed(DT);
+        }
+
+        return hits[0];
+    }
+}
@@ -0,0 +1,78 @@
+package benchmarks;
+
+import score.HighScoresLog;
+import score.HighScoresTable;
+import score.ScoreInfo;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Measures recording a game session that enters the high-scores table:
+ * adding its score, saving it to a high-scores file in the temporary
+ * directory, and reading the sorted table the way the high-scores screen
+ * does.
+ *
+ * @author Shahaf Mordechay
+ */
+public class HighScoresBenchmark implements Benchmark {
+
+    // members
+    private int size;
+    private HighScoresTable table;
+    private HighScoresLog log;
+    private int score;
+
+    /**
+     * Constructs a new high-scores benchmark.
+     *
+     * @param size the high-scores table size.
+     */
+    public HighScoresBenchmark(int size) {
+        this.size = size;
+    }
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "HighScoresTable.add[" + this.size + "]";
+    }
+
+    /**
+     * Create an empty table and its high-scores file.
+     */
+    public void setUp() {
+        try {
+            File file = File.createTempFile("highscores", ".log");
+            file.deleteOnExit();
+
+            this.table = new HighScoresTable(this.size);
+            this.log = new HighScoresLog(file);
+            this.log.rewrite(this.table);
+            this.score = 0;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed creating high-scores file", e);
+        }
+    }
+
+    /**
+     * Record a session with a score higher than all the previous ones.
+     *
+     * @return the number of scores in the table.
+     */
+    public int run() {
+        ScoreInfo info = new ScoreInfo("player", ++this.score);
+        this.table.add(info);
+
+        try {
+            this.log.append(info, this.table);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed saving high score", e);
+        }
+
+        return this.table.getHighScores().size();
+    }
+}
@@ -0,0 +1,98 @@
+package benchmarks;
+
+import readers.LevelSpecificationReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+
+/**
+ * Measures parsing a level definitions file, including the blocks
+ * definitions and images it refers to.
+ * The file may be repeated many times, to measure a large level pack.
+ *
+ * @author Shahaf Mordechay
+ */
+public class LevelParsingBenchmark implements Benchmark {
+
+    // members
+    private String resource;
+    private int copies;
+    private String definitions;
+
+    /**
+     * Constructs a new level parsing benchmark.
+     *
+     * @param resource the level definitions resource file.
+     */
+    public LevelParsingBenchmark(String resource) {
+        this(resource, 1);
+    }
+
+    /**
+     * Constructs a new level parsing benchmark of the given file repeated
+     * the given number of times.
+     *
+     * @param resource the level definitions resource file.
+     * @param copies   the number of times the file is repeated.
+     */
+    public LevelParsingBenchmark(String resource, int copies) {
+        this.resource = resource;
+        this.copies = copies;
+    }
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        String name = "LevelSpecificationReader.fromReader[" + this.resource;
+        if (this.copies > 1) {
+            name += " x" + this.copies;
+        }
+
+        return name + "]";
+    }
+
+    /**
+     * Read the level definitions file into memory, so only parsing is
+     * measured.
+     */
+    public void setUp() {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(this.resource);
+        if (is == null) {
+            throw new IllegalStateException("Unable to find file: " + this.resource);
+        }
+
+        StringBuilder text = new StringBuilder();
+        char[] charBuffer = new char[4096];
+        try (Reader reader = new InputStreamReader(is)) {
+            int read = reader.read(charBuffer);
+            while (read != -1) {
+                text.append(charBuffer, 0, read);
+                read = reader.read(charBuffer);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed reading file: " + this.resource, e);
+        }
+
+        String file = text.toString();
+        for (int i = 1; i < this.copies; i++) {
+            text.append('\n').append(file);
+        }
+
+        this.definitions = text.toString();
+    }
+
+    /**
+     * Parse the level definitions once.
+     *
+     * @return the number of levels read.
+     */
+    public int run() {
+        return new LevelSpecificationReader().fromReader(new StringReader(this.definitions)).size();
+    }
+}
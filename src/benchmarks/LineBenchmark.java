@@ -0,0 +1,62 @@
+package benchmarks;
+
+import geometry.Line;
+
+import java.util.Random;
+
+/**
+ * Measures the intersection point of two random lines.
+ *
+ * @author Shahaf Mordechay
+ */
+public class LineBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final int SIZE = 800;
+    private static final int PAIRS = 256;
+    private static final long SEED = 42;
+
+    // members
+    private Line[] lines;
+    private Line[] others;
+    private int next;
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "Line.intersectionWith";
+    }
+
+    /**
+     * Create random pairs of lines, about half of them intersecting.
+     */
+    public void setUp() {
+        Random random = new Random(SEED);
+        this.lines = new Line[PAIRS];
+        this.others = new Line[PAIRS];
+
+        for (int i = 0; i < PAIRS; i++) {
+            this.lines[i] = new Line(random.nextDouble() * SIZE, random.nextDouble() * SIZE,
+                    random.nextDouble() * SIZE, random.nextDouble() * SIZE);
+            this.others[i] = new Line(random.nextDouble() * SIZE, random.nextDouble() * SIZE,
+                    random.nextDouble() * SIZE, random.nextDouble() * SIZE);
+        }
+
+        this.next = 0;
+    }
+
+    /**
+     * Intersect the next pair of lines.
+     *
+     * @return 1 if the lines intersect, 0 otherwise.
+     */
+    public int run() {
+        int i = this.next;
+        this.next = (this.next + 1) % PAIRS;
+
+        return this.lines[i].intersectionWith(this.others[i]) == null ? 0 : 1;
+    }
+}
@@ -0,0 +1,63 @@
+package benchmarks;
+
+import geometry.Line;
+import geometry.Rectangle;
+
+import java.util.Random;
+
+/**
+ * Measures the intersection points of a rectangle with random lines
+ * around it.
+ *
+ * @author Shahaf Mordechay
+ */
+public class RectangleBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final int SIZE = 300;
+    private static final int LINES = 256;
+    private static final long SEED = 42;
+
+    // members
+    private Rectangle rectangle;
+    private Line[] lines;
+    private int next;
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "Rectangle.intersectionPoints";
+    }
+
+    /**
+     * Create a rectangle in the middle of the area and random lines over
+     * the whole area.
+     */
+    public void setUp() {
+        this.rectangle = new Rectangle(SIZE / 3, SIZE / 3, SIZE / 3, SIZE / 3);
+
+        Random random = new Random(SEED);
+        this.lines = new Line[LINES];
+        for (int i = 0; i < LINES; i++) {
+            this.lines[i] = new Line(random.nextDouble() * SIZE, random.nextDouble() * SIZE,
+                    random.nextDouble() * SIZE, random.nextDouble() * SIZE);
+        }
+
+        this.next = 0;
+    }
+
+    /**
+     * Intersect the rectangle with the next line.
+     *
+     * @return the number of intersection points.
+     */
+    public int run() {
+        Line line = this.lines[this.next];
+        this.next = (this.next + 1) % LINES;
+
+        return this.rectangle.intersectionPoints(line).size();
+    }
+}
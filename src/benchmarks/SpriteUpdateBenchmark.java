@@ -0,0 +1,62 @@
+package benchmarks;
+
+import collidables.Block;
+import geometry.Rectangle;
+import sprites.SpriteCollection;
+
+import java.awt.Color;
+
+/**
+ * Measures notifying a large collection of sprites that time has passed.
+ * The sprites are blocks, which do nothing on their own, so the cost is
+ * the collection iteration.
+ *
+ * @author Shahaf Mordechay
+ */
+public class SpriteUpdateBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final double DT = 1.0 / 60;
+
+    // members
+    private int numOfSprites;
+    private SpriteCollection sprites;
+
+    /**
+     * Constructs a new sprites update benchmark.
+     *
+     * @param numOfSprites the number of sprites in the collection.
+     */
+    public SpriteUpdateBenchmark(int numOfSprites) {
+        this.numOfSprites = numOfSprites;
+    }
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "SpriteCollection.notifyAllTimePassed[sprites=" + this.numOfSprites + "]";
+    }
+
+    /**
+     * Fill the collection with blocks.
+     */
+    public void setUp() {
+        this.sprites = new SpriteCollection();
+        for (int i = 0; i < this.numOfSprites; i++) {
+            this.sprites.addSprite(new Block(new Rectangle(i, i, 10, 10), Color.blue));
+        }
+    }
+
+    /**
+     * Notify all the sprites once.
+     *
+     * @return the number of sprites.
+     */
+    public int run() {
+        this.sprites.notifyAllTimePassed(DT);
+        return this.sprites.size();
+    }
+}
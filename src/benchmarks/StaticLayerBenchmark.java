@@ -0,0 +1,86 @@
+package benchmarks;
+
+import collidables.Block;
+import levels.LevelInformation;
+import readers.LevelSpecificationReader;
+import simulation.HeadlessSimulator;
+import sprites.GraphicsDrawSurface;
+import sprites.StaticLayer;
+
+import biuoop.DrawSurface;
+
+import java.awt.image.BufferedImage;
+import java.util.List;
+
+/**
+ * Measures drawing the static layer of a real level after one of its
+ * blocks was hit, which draws the layer image again where it changed.
+ * Every run hits the next block of the level.
+ *
+ * @author Shahaf Mordechay
+ */
+public class StaticLayerBenchmark implements Benchmark {
+
+    // screen size
+    private static final int WIDTH = 800;
+    private static final int HEIGHT = 600;
+
+    // members
+    private String resource;
+    private int levelIndex;
+    private StaticLayer layer;
+    private List<Block> blocks;
+    private DrawSurface surface;
+    private int next;
+
+    /**
+     * Constructs a new static layer benchmark.
+     *
+     * @param resource   the level definitions file.
+     * @param levelIndex the index of the level in the file.
+     */
+    public StaticLayerBenchmark(String resource, int levelIndex) {
+        this.resource = resource;
+        this.levelIndex = levelIndex;
+    }
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        return "StaticLayer.drawOn[" + this.resource + "#" + this.levelIndex + ",hit]";
+    }
+
+    /**
+     * Read the level and put its background and blocks in a layer.
+     */
+    public void setUp() {
+        String levelText = HeadlessSimulator.loadLevelTexts(this.resource).get(this.levelIndex);
+        LevelInformation level = new LevelSpecificationReader().levelFromText(levelText);
+
+        this.layer = new StaticLayer(WIDTH, HEIGHT);
+        this.layer.addSprite(level.getBackground());
+        this.blocks = level.blocks();
+        for (Block block : this.blocks) {
+            this.layer.addSprite(block);
+        }
+
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_RGB);
+        this.surface = new GraphicsDrawSurface(screen.getGraphics(), WIDTH, HEIGHT);
+        this.next = 0;
+    }
+
+    /**
+     * Hit the next block and draw the layer.
+     *
+     * @return the index of the hit block.
+     */
+    public int run() {
+        this.next = (this.next + 1) % this.blocks.size();
+        this.layer.hitEvent(this.blocks.get(this.next), null);
+        this.layer.drawOn(this.surface);
+        return this.next;
+    }
+}
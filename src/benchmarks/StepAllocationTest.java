@@ -0,0 +1,195 @@
+package benchmarks;
+
+import collidables.Block;
+import collidables.PaddleInput;
+import game.GameWorld;
+import geometry.Rectangle;
+import hitlisteners.HitListener;
+import levels.Level;
+import other.Counter;
+import other.Velocity;
+import simulation.HeadlessSimulator;
+import sprites.Background;
+import sprites.Ball;
+
+import java.awt.Color;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Checks that a world step in a steady state creates no new objects but
+ * the velocities of its bounces.
+ * The balls of a made up level bounce forever inside a closed box of
+ * blocks, away from the paddle, so every step moves them, hits blocks and
+ * publishes the hits, but nothing is ever removed. After a warm up, the
+ * bytes allocated by all the threads over many steps must not be more
+ * than the velocities of the hits in them: two per hit, as a corner hit
+ * mirrors both.
+ * The common pool is kept to a single thread, so the balls moves are not
+ * planned in parallel: a thread that waits for pool tasks may create the
+ * nodes it waits on.
+ * Exits with status 1 if a step allocates anything else.
+ *
+ * @author Shahaf Mordechay
+ */
+public class StepAllocationTest {
+
+    // test properties
+    private static final double DT = 1.0 / 60;
+    private static final int LIVES = 7;
+    private static final int WARMUP_STEPS = 20000;
+    private static final int MEASURED_STEPS = 10000;
+    private static final int[] BALLS = {1, 100};
+    private static final int VELOCITY_BYTES = 32;
+    private static final int VELOCITIES_PER_HIT = 2;
+    private static final String COMMON_PARALLELISM =
+            "java.util.concurrent.ForkJoinPool.common.parallelism";
+
+    // level properties
+    private static final double BALL_SPEED = 400;
+    private static final double SPREAD_ANGLE = 100;
+    private static final int PADDLE_SPEED = 1000;
+    private static final int PADDLE_WIDTH = 80;
+
+    // the box the balls bounce in, around their start point and off the paddle path
+    private static final int BOX_MIN_X = 250;
+    private static final int BOX_MIN_Y = 380;
+    private static final int BOX_MAX_X = 550;
+    private static final int BOX_MAX_Y = 580;
+    private static final int WALL = 10;
+
+    /**
+     * Run the check for every number of balls.
+     *
+     * @param args not used.
+     */
+    public static void main(String[] args) {
+        System.setProperty(COMMON_PARALLELISM, "1");
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean)
+                || !((com.sun.management.ThreadMXBean) threads).isThreadAllocatedMemorySupported()) {
+            System.err.println("Thread allocation measurement is not supported");
+            System.exit(1);
+        }
+
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        allocations.setThreadAllocatedMemoryEnabled(true);
+
+        boolean passed = true;
+        for (int balls : BALLS) {
+            Counter hits = new Counter();
+            long bytes = allocatedBytes(allocations, balls, hits);
+            long bounces = (long) hits.getValue() * VELOCITIES_PER_HIT * VELOCITY_BYTES;
+            System.out.println("GameWorld.step[" + balls + " balls]: " + bytes + " bytes in "
+                    + MEASURED_STEPS + " steps, " + hits.getValue() + " hits");
+            passed &= bytes <= bounces;
+        }
+
+        if (!passed) {
+            System.err.println("A steady state world step allocates more than its bounces");
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Step a world of the given number of balls until it is warm, and
+     * return the bytes all the threads allocated over the measured steps.
+     *
+     * @param allocations the threads allocation measurement.
+     * @param balls       the number of balls.
+     * @param hits        counts the blocks hits over the measured steps.
+     * @return the bytes allocated while measured.
+     */
+    private static long allocatedBytes(com.sun.management.ThreadMXBean allocations, int balls,
+                                       Counter hits) {
+        HeadlessSimulator simulator = new HeadlessSimulator(DT, 0);
+        Level level = createLevel(balls);
+        GameWorld world = simulator.createWorld(level, new Counter(), new Counter(LIVES));
+
+        final boolean[] measured = {false};
+        for (Block block : level.blocks()) {
+            block.addHitListener(new HitListener() {
+                @Override
+                public void hitEvent(Block beingHit, Ball hitter) {
+                    if (measured[0]) {
+                        hits.increase(1);
+                    }
+                }
+            });
+        }
+
+        // park the paddle at the left, away from the box
+        world.initialize(new PaddleInput() {
+            @Override
+            public int direction() {
+                return LEFT;
+            }
+        });
+        world.createBalls();
+
+        for (int i = 0; i < WARMUP_STEPS; i++) {
+            world.step(DT);
+        }
+
+        // the threads are read once, so reading them allocates nothing while measured
+        long[] ids = allocations.getAllThreadIds();
+        long before = totalBytes(allocations, ids);
+        measured[0] = true;
+        for (int i = 0; i < MEASURED_STEPS; i++) {
+            world.step(DT);
+        }
+        long after = totalBytes(allocations, ids);
+
+        return after - before;
+    }
+
+    /**
+     * Return the bytes the given threads allocated so far.
+     *
+     * @param allocations the threads allocation measurement.
+     * @param ids         the threads ids.
+     * @return the bytes allocated by the threads that are still alive.
+     */
+    private static long totalBytes(com.sun.management.ThreadMXBean allocations, long[] ids) {
+        long total = 0;
+        for (long id : ids) {
+            long bytes = allocations.getThreadAllocatedBytes(id);
+            if (bytes > 0) {
+                total += bytes;
+            }
+        }
+
+        return total;
+    }
+
+    /**
+     * Create a level of the given number of balls, all going up at angles
+     * spread evenly around the vertical, inside a closed box of blocks.
+     *
+     * @param balls the number of balls.
+     * @return the level.
+     */
+    private static Level createLevel(int balls) {
+        List<Velocity> velocities = new ArrayList<>();
+        for (int i = 0; i < balls; i++) {
+            double angle = 180 + SPREAD_ANGLE * ((i + 0.5) / balls - 0.5);
+            velocities.add(Velocity.fromAngleAndSpeed(angle, BALL_SPEED));
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        blocks.add(new Block(new Rectangle(BOX_MIN_X, BOX_MIN_Y,
+                BOX_MAX_X - BOX_MIN_X, WALL), Color.GRAY));
+        blocks.add(new Block(new Rectangle(BOX_MIN_X, BOX_MAX_Y - WALL,
+                BOX_MAX_X - BOX_MIN_X, WALL), Color.GRAY));
+        blocks.add(new Block(new Rectangle(BOX_MIN_X, BOX_MIN_Y,
+                WALL, BOX_MAX_Y - BOX_MIN_Y), Color.GRAY));
+        blocks.add(new Block(new Rectangle(BOX_MAX_X - WALL, BOX_MIN_Y,
+                WALL, BOX_MAX_Y - BOX_MIN_Y), Color.GRAY));
+
+        return new Level(velocities, PADDLE_SPEED, PADDLE_WIDTH, "Allocation",
+                new Background(Color.BLACK), blocks);
+    }
+}
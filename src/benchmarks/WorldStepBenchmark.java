@@ -0,0 +1,136 @@
+package benchmarks;
+
+import game.GameWorld;
+import levels.Level;
+import levels.LevelInformation;
+import other.Counter;
+import other.Velocity;
+import readers.LevelSpecificationReader;
+import simulation.HeadlessSimulator;
+import simulation.TrackingPaddleInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Measures a full world step of a real level played by the computer
+ * player: moving the paddle and the balls, and the hits they make.
+ * A new world is created when a turn ends.
+ * The level may be played with many balls instead of its own, spread
+ * around the direction of its first ball.
+ *
+ * @author Shahaf Mordechay
+ */
+public class WorldStepBenchmark implements Benchmark {
+
+    // benchmark properties
+    private static final double DT = 1.0 / 60;
+    private static final int LIVES = 7;
+    private static final double SPREAD_ANGLE = 120;
+
+    // members
+    private String resource;
+    private int levelIndex;
+    private int balls;
+    private String levelText;
+    private GameWorld world;
+
+    /**
+     * Constructs a new world step benchmark.
+     *
+     * @param resource   the level definitions file.
+     * @param levelIndex the index of the level in the file.
+     */
+    public WorldStepBenchmark(String resource, int levelIndex) {
+        this(resource, levelIndex, 0);
+    }
+
+    /**
+     * Constructs a new world step benchmark of a level played with the
+     * given number of balls.
+     *
+     * @param resource   the level definitions file.
+     * @param levelIndex the index of the level in the file.
+     * @param balls      the number of balls, 0 for the level own balls.
+     */
+    public WorldStepBenchmark(String resource, int levelIndex, int balls) {
+        this.resource = resource;
+        this.levelIndex = levelIndex;
+        this.balls = balls;
+    }
+
+    /**
+     * Return the benchmark name.
+     *
+     * @return the benchmark name.
+     */
+    public String getName() {
+        String name = "GameWorld.step[" + this.resource + "#" + this.levelIndex;
+        if (this.balls > 0) {
+            name += "," + this.balls + " balls";
+        }
+
+        return name + "]";
+    }
+
+    /**
+     * Read the level and create its world.
+     */
+    public void setUp() {
+        this.levelText = HeadlessSimulator.loadLevelTexts(this.resource).get(this.levelIndex);
+        this.startWorld();
+    }
+
+    /**
+     * Step the world once, creating a new world if the turn is over.
+     *
+     * @return the number of remaining blocks.
+     */
+    public int run() {
+        if (this.world.endTurnIfOver()) {
+            this.startWorld();
+        }
+
+        this.world.step(DT);
+        return this.world.getRemainingBlocks();
+    }
+
+    /**
+     * Create a new world of the level and start its first turn.
+     */
+    private void startWorld() {
+        LevelInformation level = new LevelSpecificationReader().levelFromText(this.levelText);
+        if (this.balls > 0) {
+            level = this.withBalls(level);
+        }
+
+        HeadlessSimulator simulator = new HeadlessSimulator(DT, 0);
+
+        this.world = simulator.createWorld(level, new Counter(), new Counter(LIVES));
+        this.world.initialize(new TrackingPaddleInput(this.world));
+        this.world.createBalls();
+    }
+
+    /**
+     * Return a copy of the given level with this benchmark number of balls,
+     * spread evenly around the direction of the level first ball.
+     *
+     * @param level the level.
+     * @return the level with many balls.
+     */
+    private LevelInformation withBalls(LevelInformation level) {
+        Velocity first = level.initialBallVelocities().get(0);
+        List<Velocity> velocities = new ArrayList<>();
+
+        for (int i = 0; i < this.balls; i++) {
+            double angle = Math.toRadians(SPREAD_ANGLE * ((i + 0.5) / this.balls - 0.5));
+            double sin = Math.sin(angle);
+            double cos = Math.cos(angle);
+            velocities.add(new Velocity(first.getDx() * cos - first.getDy() * sin,
+                    first.getDx() * sin + first.getDy() * cos));
+        }
+
+        return new Level(velocities, level.paddleSpeed(), level.paddleWidth(),
+                level.levelName(), level.getBackground(), level.blocks());
+    }
+}
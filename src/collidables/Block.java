@@ -1,5 +1,6 @@
 package collidables;
 
+import game.HitEventBus;
 import game.HitNotifier;
 import geometry.Line;
 import geometry.Point;
@@ -8,14 +9,14 @@ import other.Fill;
 import sprites.Ball;
 import sprites.Sprite;
 import other.Velocity;
-import game.GameLevel;
+import game.GameWorld;
 import hitlisteners.HitListener;
 
 import biuoop.DrawSurface;
 
 import java.awt.Color;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.Map;
 import java.util.TreeMap;
 
@@ -33,11 +34,9 @@ public class Block implements Collidable, Sprite, HitNotifier {
     private Fill fill;
     private Integer hitPoints;
     private Color stroke;
-    private Line upperEdge;
-    private Line lowerEdge;
-    private Line leftEdge;
-    private Line rightEdge;
-    private List<HitListener> hitListeners;
+    private HitListener[] hitListeners;
+    private HitEventBus hitEvents;
+    private int queuedHits;
     private Map<Integer, Fill> fillsMap;
 
     /**
@@ -53,20 +52,9 @@ public class Block implements Collidable, Sprite, HitNotifier {
         this.fill = fill;
         this.hitPoints = hitPoints;
         this.stroke = null;
-
-        this.upperEdge = new Line(this.rectangle.getUpperLeft(),
-                                 this.rectangle.getUpperRight());
-
-        this.lowerEdge = new Line(this.rectangle.getLowerLeft(),
-                                 this.rectangle.getLowerRight());
-
-        this.leftEdge = new Line(this.rectangle.getUpperLeft(),
-                                this.rectangle.getLowerLeft());
-
-        this.rightEdge = new Line(this.rectangle.getUpperRight(),
-                                 this.rectangle.getLowerRight());
-
-        this.hitListeners = new ArrayList<>();
+        this.hitListeners = new HitListener[0];
+        this.hitEvents = null;
+        this.queuedHits = 0;
         this.fillsMap = new TreeMap<>();
     }
 
@@ -82,20 +70,9 @@ public class Block implements Collidable, Sprite, HitNotifier {
         this.fill = new Fill(color);
         this.hitPoints = INDESTRUCTIBLE;
         this.stroke = null;
-
-        this.upperEdge = new Line(this.rectangle.getUpperLeft(),
-                this.rectangle.getUpperRight());
-
-        this.lowerEdge = new Line(this.rectangle.getLowerLeft(),
-                this.rectangle.getLowerRight());
-
-        this.leftEdge = new Line(this.rectangle.getUpperLeft(),
-                this.rectangle.getLowerLeft());
-
-        this.rightEdge = new Line(this.rectangle.getUpperRight(),
-                this.rectangle.getLowerRight());
-
-        this.hitListeners = new ArrayList<>();
+        this.hitListeners = new HitListener[0];
+        this.hitEvents = null;
+        this.queuedHits = 0;
         this.fillsMap = new TreeMap<>();
     }
 
@@ -117,40 +94,58 @@ public class Block implements Collidable, Sprite, HitNotifier {
         return this.fill;
     }
 
+    /**
+     * Return the fills of this block by its remaining hit points (fill-k).
+     *
+     * @return an unmodifiable map of hit points to fills.
+     */
+    public Map<Integer, Fill> getFills() {
+        return Collections.unmodifiableMap(this.fillsMap);
+    }
+
+    /**
+     * Return the stroke color of this block.
+     *
+     * @return the stroke color, null if the block has no stroke.
+     */
+    public Color getStroke() {
+        return this.stroke;
+    }
+
     /**
      * Return the upper edge of this block.
      *
-     * @return the upper edge of this block.
+     * @return a new line of the upper edge of this block.
      */
     public Line getUpperEdge() {
-        return this.upperEdge;
+        return new Line(this.rectangle.getUpperLeft(), this.rectangle.getUpperRight());
     }
 
     /**
      * Return the lower edge of this block.
      *
-     * @return the lower edge of this block.
+     * @return a new line of the lower edge of this block.
      */
     public Line getLowerEdge() {
-        return this.lowerEdge;
+        return new Line(this.rectangle.getLowerLeft(), this.rectangle.getLowerRight());
     }
 
     /**
      * Return the left edge of this block.
      *
-     * @return the left edge of this block.
+     * @return a new line of the left edge of this block.
      */
     public Line getLeftEdge() {
-        return this.leftEdge;
+        return new Line(this.rectangle.getUpperLeft(), this.rectangle.getLowerLeft());
     }
 
     /**
      * Return the right edge of this block.
      *
-     * @return the right edge of this block.
+     * @return a new line of the right edge of this block.
      */
     public Line getRightEdge() {
-        return this.rightEdge;
+        return new Line(this.rectangle.getUpperRight(), this.rectangle.getLowerRight());
     }
 
     /**
@@ -190,16 +185,51 @@ public class Block implements Collidable, Sprite, HitNotifier {
     }
 
     /**
-     * Notify all of this block hit listeners on a hit event.
+     * Apply a hit that was queued while the world was stepped: take a hit
+     * point and notify all of this block hit listeners.
+     * The hit is dropped if this block or the ball that hit it were
+     * removed from the game since.
      *
      * @param hitter the object that hit this block.
      */
-    private void notifyHit(Ball hitter) {
+    public void applyHit(Ball hitter) {
+        if (this.queuedHits > 0) {
+            this.queuedHits--;
+        }
 
-        // Make a copy of the hitlisteners list before iterating over them
-        List<HitListener> listeners = new ArrayList<>(this.hitListeners);
+        if (this.hitEvents != null && !hitter.isRemoved()) {
+            this.takeHit(hitter);
+        }
+    }
+
+    /**
+     * Tell if the hits queued in the current step take all of this block
+     * remaining hit points. Such a block is removed once the step is
+     * over, so it does not collide anymore meanwhile.
+     *
+     * @return true if the queued hits destroy this block.
+     */
+    public boolean isUsedUp() {
+        return this.queuedHits > 0 && this.hitPoints >= 0 && this.queuedHits >= this.hitPoints;
+    }
+
+    /**
+     * Take a hit point and notify all of this block hit listeners.
+     * Listeners are kept in an array that is replaced when a listener is
+     * added or removed, so a listener may remove itself while it is
+     * notified, and notifying them does not copy the array.
+     *
+     * @param hitter the object that hit this block.
+     */
+    private void takeHit(Ball hitter) {
+
+        // reduce 1 hitPoints for every hit
+        if (this.hitPoints > 0) {
+            this.hitPoints -= 1;
+        }
 
         // Notify all listeners about a hit event
+        HitListener[] listeners = this.hitListeners;
         for (HitListener hl : listeners) {
             hl.hitEvent(this, hitter);
         }
@@ -219,33 +249,45 @@ public class Block implements Collidable, Sprite, HitNotifier {
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
         double x = collisionPoint.getX();
         double y = collisionPoint.getY();
-        double dx = currentVelocity.getDx();
-        double dy = currentVelocity.getDy();
+        Velocity velocity = currentVelocity;
+        double dx = velocity.getDx();
+        double dy = velocity.getDy();
+
+        // the edges, with the corners rounded like the rectangle points
+        double minX = this.rectangle.getUpperLeft().getX();
+        double minY = this.rectangle.getUpperLeft().getY();
+        double maxX = Math.round(minX + this.rectangle.getWidth());
+        double maxY = Math.round(minY + this.rectangle.getHeight());
+        boolean inWidth = minX <= x && x <= maxX;
+        boolean inHeight = minY <= y && y <= maxY;
 
         // collision with upper or lower edge
-        if ((upperEdge.isPointInRange(x, y) && dy > 0)
-             || ((lowerEdge.isPointInRange(x, y) && dy < 0) && (hitPoints != PADDLE_LIFE))) {
+        if ((y == minY && inWidth && dy > 0)
+             || ((y == maxY && inWidth && dy < 0) && (hitPoints != PADDLE_LIFE))) {
 
             // negate velocity dy
-            currentVelocity = new Velocity(dx, -dy);
+            velocity = velocity.mirrorY();
         }
 
-        // collision with left or right edge
-        if ((leftEdge.isPointInRange(x, y) && dx > 0)
-            || (rightEdge.isPointInRange(x, y) && dx < 0)) {
+        /* collision with left or right edge; a corner is on both edges, and
+         * the ball bounces off both of them, so it moves away from the
+         * corner instead of hitting it again */
+        if ((x == minX && inHeight && dx > 0)
+            || (x == maxX && inHeight && dx < 0)) {
 
             // negate velocity dx
-            currentVelocity = new Velocity(-dx, dy);
+            velocity = velocity.mirrorX();
         }
 
-        // reduce 1 hitPoints for every hit
-        if (this.hitPoints > 0) {
-            this.hitPoints -= 1;
+        // in a game the hit is applied once the world step is over
+        if (this.hitEvents != null) {
+            this.queuedHits++;
+            this.hitEvents.publish(this, hitter);
+        } else {
+            this.takeHit(hitter);
         }
 
-        this.notifyHit(hitter);
-
-        return currentVelocity;
+        return velocity;
     }
 
     /**
@@ -297,23 +339,26 @@ public class Block implements Collidable, Sprite, HitNotifier {
     }
 
     /**
-     * Add this block to game sprites and environment.
+     * Add this block to game static sprites and environment.
      *
      * @param g the game to add the block to.
      */
-    public void addToGame(GameLevel g) {
-        g.addSprite(this);
+    public void addToGame(GameWorld g) {
+        g.addStaticSprite(this);
         g.addCollidable(this);
+        this.hitEvents = g.getHitEvents();
     }
 
     /**
-     * Remove this block from game sprites and environment.
+     * Remove this block from game static sprites and environment.
      *
-     * @param gameLevel the game to remove the block from.
+     * @param gameWorld the game to remove the block from.
      */
-    public void removeFromGame(GameLevel gameLevel) {
-        gameLevel.removeSprite(this);
-        gameLevel.removeCollidable(this);
+    public void removeFromGame(GameWorld gameWorld) {
+        gameWorld.removeStaticSprite(this);
+        gameWorld.removeCollidable(this);
+        this.hitEvents = null;
+        this.queuedHits = 0;
     }
 
     /**
@@ -322,7 +367,9 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param hl the listener to add to hitlisteners list.
      */
     public void addHitListener(HitListener hl) {
-        this.hitListeners.add(hl);
+        HitListener[] grown = Arrays.copyOf(this.hitListeners, this.hitListeners.length + 1);
+        grown[this.hitListeners.length] = hl;
+        this.hitListeners = grown;
     }
 
     /**
@@ -331,7 +378,15 @@ public class Block implements Collidable, Sprite, HitNotifier {
      * @param hl the listener to remove from hitlisteners list.
      */
     public void removeHitListener(HitListener hl) {
-        this.hitListeners.remove(hl);
+        for (int i = 0; i < this.hitListeners.length; i++) {
+            if (this.hitListeners[i] == hl) {
+                HitListener[] shrunk = new HitListener[this.hitListeners.length - 1];
+                System.arraycopy(this.hitListeners, 0, shrunk, 0, i);
+                System.arraycopy(this.hitListeners, i + 1, shrunk, i, shrunk.length - i);
+                this.hitListeners = shrunk;
+                return;
+            }
+        }
     }
 
     /**
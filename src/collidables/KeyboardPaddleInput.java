@@ -0,0 +1,39 @@
+package collidables;
+
+import biuoop.KeyboardSensor;
+
+/**
+ * Moves the paddle by the player left and right keys.
+ *
+ * @author Shahaf Mordechay
+ */
+public class KeyboardPaddleInput implements PaddleInput {
+
+    // member
+    private KeyboardSensor keyboard;
+
+    /**
+     * Constructs a paddle input from the player keyboard.
+     *
+     * @param keyboard the keyboard to move by.
+     */
+    public KeyboardPaddleInput(KeyboardSensor keyboard) {
+        this.keyboard = keyboard;
+    }
+
+    /**
+     * Move left while the left key is pressed, otherwise move right
+     * while the right key is pressed.
+     *
+     * @return the direction of the pressed key.
+     */
+    public int direction() {
+        if (this.keyboard.isPressed(KeyboardSensor.LEFT_KEY)) {
+            return LEFT;
+        } else if (this.keyboard.isPressed(KeyboardSensor.RIGHT_KEY)) {
+            return RIGHT;
+        }
+
+        return STAY;
+    }
+}
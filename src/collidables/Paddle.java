@@ -4,9 +4,9 @@ import biuoop.DrawSurface;
 import biuoop.KeyboardSensor;
 import geometry.Point;
 import geometry.Rectangle;
-import sprites.Sprite;
+import sprites.InterpolatedSprite;
 import other.Velocity;
-import game.GameLevel;
+import game.GameWorld;
 import sprites.Ball;
 
 import java.awt.Color;
@@ -16,14 +16,14 @@ import java.awt.Color;
  *
  * @author Shahaf Mordechay
  */
-public class Paddle implements Collidable, Sprite {
+public class Paddle implements Collidable, InterpolatedSprite {
 
-    private static final Integer INFINITE_LIFE = -1;
     private static final int NUM_OF_REGIONS = 5;
 
     // members
     private Block block;
-    private KeyboardSensor keyboard;
+    private double previousX;
+    private PaddleInput input;
     private double leftLimit;
     private double rightLimit;
     private int speed;
@@ -38,8 +38,22 @@ public class Paddle implements Collidable, Sprite {
      * @param rightLimit the limit to the right.
      */
     public Paddle(Block block, KeyboardSensor keyboard, double leftLimit, double rightLimit) {
+        this(block, new KeyboardPaddleInput(keyboard), leftLimit, rightLimit);
+    }
+
+    /**
+     * Constructs and initializes a paddle(rectangle) that moves
+     * left and right by a given input.
+     *
+     * @param block      the paddle collidable.
+     * @param input      the input to move by.
+     * @param leftLimit  the limit to the left.
+     * @param rightLimit the limit to the right.
+     */
+    public Paddle(Block block, PaddleInput input, double leftLimit, double rightLimit) {
         this.block = block;
-        this.keyboard = keyboard;
+        this.previousX = block.getUpperLeft().getX();
+        this.input = input;
         this.leftLimit = leftLimit;
         this.rightLimit = rightLimit;
     }
@@ -67,7 +81,6 @@ public class Paddle implements Collidable, Sprite {
 
         double y = block.getUpperLeft().getY();
         block.getCollisionRectangle().setUpperLeft(x, y);
-        block = new Block(block.getCollisionRectangle(), block.getFill(), INFINITE_LIFE);
     }
 
     /**
@@ -85,20 +98,23 @@ public class Paddle implements Collidable, Sprite {
 
         double y = block.getUpperLeft().getY();
         block.getCollisionRectangle().setUpperLeft(x, y);
-        block = new Block(block.getCollisionRectangle(), block.getFill(), INFINITE_LIFE);
     }
 
     /**
-     * check if left or right key is pressed and move accordingly.
+     * check which direction the input asks for and move accordingly.
      *
      * @param dt the amount of seconds passed since the last call.
      */
     public void timePassed(double dt) {
-        if (keyboard.isPressed(KeyboardSensor.LEFT_KEY)
+        this.previousX = this.block.getUpperLeft().getX();
+        int direction = this.input.direction();
+
+        if (direction == PaddleInput.LEFT
             && (leftLimit < this.block.getUpperLeft().getX())) {
             moveLeft(dt);
-        } else if (keyboard.isPressed(KeyboardSensor.RIGHT_KEY)
-                   && this.block.getLowerRight().getX() < rightLimit) {
+        } else if (direction == PaddleInput.RIGHT
+                   && this.block.getUpperLeft().getX()
+                      + this.block.getCollisionRectangle().getWidth() < rightLimit) {
             moveRight(dt);
         }
     }
@@ -109,9 +125,22 @@ public class Paddle implements Collidable, Sprite {
      * @param d the screen to draw on.
      */
     public void drawOn(DrawSurface d) {
+        this.drawOn(d, 1);
+    }
+
+    /**
+     * Draw the paddle on a given surface, between its place before the
+     * last move and its current one.
+     *
+     * @param d     the screen to draw on.
+     * @param alpha 0 to draw the paddle at its previous place, 1 to draw
+     *              it at its current one.
+     */
+    public void drawOn(DrawSurface d, double alpha) {
         Rectangle thisRec = block.getCollisionRectangle();
+        double x = this.previousX + (thisRec.getUpperLeft().getX() - this.previousX) * alpha;
 
-        int xCoordinate = (int) thisRec.getUpperLeft().getX();
+        int xCoordinate = (int) x;
         int yCoordinate = (int) thisRec.getUpperLeft().getY();
         int width = (int) thisRec.getWidth();
         int height = (int) thisRec.getHeight();
@@ -153,11 +182,12 @@ public class Paddle implements Collidable, Sprite {
         // the paddle upper left point
         double regionStart = block.getCollisionRectangle().getUpperLeft().getX();
 
-        // return the needed angle by region
+        // return the needed angle by region, the paddle corners included
         for (int i = 0; i < NUM_OF_REGIONS; i++) {
             double min = i * regionSize + regionStart;
             double max = (i + 1) * regionSize + regionStart;
-            if (min < collisionX && collisionX < max) {
+            if ((min < collisionX || i == 0)
+                    && (collisionX < max || i == NUM_OF_REGIONS - 1)) {
                 switch (i) {
                     case 0:
                         return 300;
@@ -193,30 +223,41 @@ public class Paddle implements Collidable, Sprite {
     public Velocity hit(Ball hitter, Point collisionPoint, Velocity currentVelocity) {
         double x = collisionPoint.getX();
         double y = collisionPoint.getY();
-        double dx = currentVelocity.getDx();
-        double dy = currentVelocity.getDy();
-        double ballAngle = currentVelocity.getAngle();
+        Velocity velocity = currentVelocity;
+        double dy = velocity.getDy();
+        double ballAngle = velocity.getAngle();
+
+        // the edges, with the corners rounded like the rectangle points
+        Rectangle rectangle = block.getCollisionRectangle();
+        double minX = rectangle.getUpperLeft().getX();
+        double minY = rectangle.getUpperLeft().getY();
+        double maxX = Math.round(minX + rectangle.getWidth());
+        double maxY = Math.round(minY + rectangle.getHeight());
+        boolean inWidth = minX <= x && x <= maxX;
+        boolean inHeight = minY <= y && y <= maxY;
 
         // collision with upper edge
-        if (block.getUpperEdge().isPointInRange(x, y) && dy > 0) {
+        if (y == minY && inWidth && dy > 0) {
             ballAngle = angleByRegion(x, ballAngle);
-            double ballSpeed = currentVelocity.getSpeed();
-            currentVelocity = Velocity.fromAngleAndSpeed(ballAngle, ballSpeed);
+            double ballSpeed = velocity.getSpeed();
+            velocity = Velocity.fromAngleAndSpeed(ballAngle, ballSpeed);
 
         // collision with lower edge
-        } else if (block.getLowerEdge().isPointInRange(x, y) && dy < 0) {
-            currentVelocity = new Velocity(dx, -dy);
+        } else if (y == maxY && inWidth && dy < 0) {
+            velocity = velocity.mirrorY();
         }
 
-        // collision with left or right edge
-        if ((block.getLeftEdge().isPointInRange(x, y) && dx > 0)
-            || (block.getRightEdge().isPointInRange(x, y) && dx < 0)) {
+        /* collision with left or right edge; at a corner the ball already
+         * bounced off the upper or lower edge, and is only turned back if
+         * it still moves into the side */
+        if ((x == minX && inHeight && velocity.getDx() > 0)
+            || (x == maxX && inHeight && velocity.getDx() < 0)) {
 
             // negate velocity dx
-            currentVelocity = new Velocity(-dx, dy);
+            velocity = velocity.mirrorX();
         }
 
-        return currentVelocity;
+        return velocity;
     }
 
     /**
@@ -224,7 +265,7 @@ public class Paddle implements Collidable, Sprite {
      *
      * @param g the game to add the paddle to.
      */
-    public void addToGame(GameLevel g) {
+    public void addToGame(GameWorld g) {
         g.addSprite(this);
         g.addCollidable(this);
     }
@@ -234,7 +275,7 @@ public class Paddle implements Collidable, Sprite {
      *
      * @param g the game to remove the paddle from.
      */
-    public void removeFromGame(GameLevel g) {
+    public void removeFromGame(GameWorld g) {
         g.removeSprite(this);
         g.removeCollidable(this);
     }
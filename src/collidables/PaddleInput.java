@@ -0,0 +1,32 @@
+package collidables;
+
+/**
+ * The source of the paddle movement: the player keyboard, a script
+ * or a computer player.
+ *
+ * @author Shahaf Mordechay
+ */
+public interface PaddleInput {
+
+    /**
+     * Move the paddle to the left.
+     */
+    int LEFT = -1;
+
+    /**
+     * Keep the paddle in place.
+     */
+    int STAY = 0;
+
+    /**
+     * Move the paddle to the right.
+     */
+    int RIGHT = 1;
+
+    /**
+     * The direction to move the paddle in, called once on every paddle move.
+     *
+     * @return LEFT, RIGHT or STAY.
+     */
+    int direction();
+}
@@ -11,6 +11,9 @@ import java.util.TreeMap;
 
 /**
  * Create a block by given properties.
+ * A creator is never changed after it is constructed, so a single creator
+ * may create blocks for many levels, from several threads, and all its
+ * blocks share its fills.
  *
  * @author Shahaf Mordechay
  */
@@ -30,7 +33,7 @@ public class BlockCreator {
      * @param width     the block width.
      * @param height    the block height.
      * @param hitPoints the block hit points.
-     * @param filling   the block default fill.
+     * @param filling   the block default fill, the fill-1 fill if null.
      * @param fillMap   the block fill-k fills.
      * @param stroke    the block stroke.
      */
@@ -42,6 +45,10 @@ public class BlockCreator {
         this.hitPoints = hitPoints;
         this.filling = filling;
         this.fillMap = fillMap;
+
+        if (this.filling == null) {
+            this.filling = this.fillMap.get(1);
+        }
         this.stroke = stroke;
     }
     /**
@@ -52,18 +59,10 @@ public class BlockCreator {
      * @return a new Block in x,y position.
      */
     public Block create(int xpos, int ypos) {
-
-        if (this.fillMap.containsKey(1) && this.filling == null) {
-            this.filling = this.fillMap.get(1);
-        }
-
         Rectangle rectangle = new Rectangle(xpos, ypos, this.width, this.height);
         Block newBlock = new Block(rectangle, this.filling, this.hitPoints);
         newBlock.setStroke(this.stroke);
-
-        if (this.fillMap != null) {
-            newBlock.addFills(this.fillMap);
-        }
+        newBlock.addFills(this.fillMap);
 
         return newBlock;
     }
@@ -104,11 +103,7 @@ public class BlockCreator {
                     break;
                 case "fill":
                     if (fill == null) {
-                        if (value.contains("color")) {
-                            fill = new Fill(ColorsParser.colorFromString(value));
-                        } else if (value.contains("image")) {
-                            fill = new Fill(ColorsParser.imageFromString(value));
-                        }
+                        fill = ColorsParser.fillFromString(value);
                     }
                     break;
                 case "stroke":
@@ -122,11 +117,8 @@ public class BlockCreator {
 
             if (keyAndValue[0].contains("fill-")) {
                 Integer fillNum = Integer.parseInt(key.split("-")[1]);
-                if (value.contains("color")) {
-                    Fill filling = new Fill(ColorsParser.colorFromString(value));
-                    fillMap.put(fillNum, filling);
-                } else if (value.contains("image")) {
-                    Fill filling = new Fill(ColorsParser.imageFromString(value));
+                Fill filling = ColorsParser.fillFromString(value);
+                if (filling != null) {
                     fillMap.put(fillNum, filling);
                 }
             }
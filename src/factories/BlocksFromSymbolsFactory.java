@@ -8,14 +8,23 @@ import java.util.TreeMap;
 /**
  * Factory of blocks.
  * Create block by symbol.
+ * The symbols of a single ASCII character are also kept in tables indexed
+ * by the character, so the blocks of a layout are looked up by the
+ * characters of its rows without creating a string per cell. Other
+ * symbols are looked up by string.
  *
  * @author Shahaf Mordechay
  */
 public class BlocksFromSymbolsFactory {
 
+    // number of characters in the symbol tables
+    private static final int TABLE_SIZE = 128;
+
     // members
     private Map<String, Integer> spacerWidths;
     private Map<String, BlockCreator> blockCreators;
+    private Integer[] spacerTable;
+    private BlockCreator[] creatorTable;
 
     /**
      * Constructs a block factory.
@@ -23,6 +32,8 @@ public class BlocksFromSymbolsFactory {
     public BlocksFromSymbolsFactory() {
         this.spacerWidths = new TreeMap<>();
         this.blockCreators = new TreeMap<>();
+        this.spacerTable = new Integer[TABLE_SIZE];
+        this.creatorTable = new BlockCreator[TABLE_SIZE];
     }
 
     /**
@@ -80,6 +91,61 @@ public class BlocksFromSymbolsFactory {
         return this.blockCreators.get(s).getWidth();
     }
 
+    /**
+     * Returns true if given character 'c' is a valid space symbol,
+     * return false otherwise.
+     *
+     * @param c space symbol.
+     * @return true if 'c' is a valid space symbol.
+     */
+    public boolean isSpaceSymbol(char c) {
+        return this.spacerWidth(c) != null;
+    }
+
+    /**
+     * Returns true if given character 'c' is a valid block symbol,
+     * return false otherwise.
+     *
+     * @param c block symbol.
+     * @return true if 'c' is a valid block symbol.
+     */
+    public boolean isBlockSymbol(char c) {
+        return this.blockCreator(c) != null;
+    }
+
+    /**
+     * Return a block according to the definitions associated with symbol c.
+     * The block will be located at position (xpos, ypos).
+     *
+     * @param c    block symbol.
+     * @param xpos x coordinate of block upper left point.
+     * @param ypos y coordinate of block upper left point.
+     * @return a new Block in x,y position.
+     */
+    public Block getBlock(char c, int xpos, int ypos) {
+        return this.blockCreator(c).create(xpos, ypos);
+    }
+
+    /**
+     * Returns the width in pixels associated with the given spacer-symbol.
+     *
+     * @param c space symbol.
+     * @return the with of this space symbol.
+     */
+    public int getSpaceWidth(char c) {
+        return this.spacerWidth(c);
+    }
+
+    /**
+     * Returns the width in pixels associated with the given block-symbol.
+     *
+     * @param c block symbol.
+     * @return the with of this block symbol.
+     */
+    public int getBlockWidth(char c) {
+        return this.blockCreator(c).getWidth();
+    }
+
     /**
      * Add block with a specific symbol to this factory.
      *
@@ -105,6 +171,9 @@ public class BlocksFromSymbolsFactory {
                 blockCreatorFromString(properties);
 
         this.blockCreators.put(symbol, blockCreator);
+        if (isTableSymbol(symbol)) {
+            this.creatorTable[symbol.charAt(0)] = blockCreator;
+        }
     }
 
     /**
@@ -118,5 +187,46 @@ public class BlocksFromSymbolsFactory {
         String size = properties[1].split(":")[1].trim();
         Integer spaceSize = Integer.parseInt(size);
         this.spacerWidths.put(symbol, spaceSize);
+        if (isTableSymbol(symbol)) {
+            this.spacerTable[symbol.charAt(0)] = spaceSize;
+        }
+    }
+
+    /**
+     * Return the width of the given space symbol.
+     *
+     * @param c space symbol.
+     * @return the space width, null if 'c' is not a space symbol.
+     */
+    private Integer spacerWidth(char c) {
+        if (c < TABLE_SIZE) {
+            return this.spacerTable[c];
+        }
+
+        return this.spacerWidths.get(String.valueOf(c));
+    }
+
+    /**
+     * Return the creator of the given block symbol.
+     *
+     * @param c block symbol.
+     * @return the block creator, null if 'c' is not a block symbol.
+     */
+    private BlockCreator blockCreator(char c) {
+        if (c < TABLE_SIZE) {
+            return this.creatorTable[c];
+        }
+
+        return this.blockCreators.get(String.valueOf(c));
+    }
+
+    /**
+     * Returns true if the given symbol is kept in the symbol tables.
+     *
+     * @param symbol the symbol.
+     * @return true if the symbol is a single ASCII character.
+     */
+    private static boolean isTableSymbol(String symbol) {
+        return symbol != null && symbol.length() == 1 && symbol.charAt(0) < TABLE_SIZE;
     }
 }
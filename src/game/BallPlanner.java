@@ -0,0 +1,142 @@
+package game;
+
+import sprites.Ball;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Plans the moves of many balls at the same time, before the world is
+ * stepped.
+ * Planning a move only searches the blocks, which do not move and are
+ * not changed while the balls are planned, so the balls are split into
+ * groups that are planned on all the cores. The balls then move one
+ * after the other, in the world sprites order, and apply their hits
+ * exactly like they do without a plan, so the world plays the same with
+ * or without the planner.
+ * The tasks that split the balls are kept and run again every step, and
+ * are only created again when the number of balls changes.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BallPlanner {
+
+    // the fewest balls planned by a single task
+    private static final int GROUP_SIZE = 16;
+
+    // members
+    private ForkJoinPool pool;
+    private Ball[] balls;
+    private double dt;
+    private PlanTask root;
+    private int rootSize;
+
+    /**
+     * Constructs a planner that plans on the threads of the given pool.
+     *
+     * @param pool the pool to plan on.
+     */
+    public BallPlanner(ForkJoinPool pool) {
+        this.pool = pool;
+        this.balls = new Ball[0];
+        this.root = null;
+        this.rootSize = -1;
+    }
+
+    /**
+     * Tell if the planner has more than one thread to plan on. On a
+     * single thread planning only adds the cost of handing the balls
+     * over to the pool.
+     *
+     * @return true if planning the balls may save time.
+     */
+    public boolean isParallel() {
+        return this.pool.getParallelism() > 1;
+    }
+
+    /**
+     * Plan the next move of every given ball, and wait for all the plans.
+     *
+     * @param ballList the balls to plan.
+     * @param stepTime the amount of seconds the next move takes.
+     */
+    public void plan(List<Ball> ballList, double stepTime) {
+        this.balls = ballList.toArray(this.balls);
+        this.dt = stepTime;
+
+        if (this.rootSize != ballList.size()) {
+            this.root = new PlanTask(this, 0, ballList.size());
+            this.rootSize = ballList.size();
+        } else {
+            this.root.reinitializeAll();
+        }
+
+        this.pool.invoke(this.root);
+    }
+
+    /**
+     * Plans the moves of a range of balls, splitting the range in two
+     * until it is small enough to plan on a single thread.
+     */
+    private static class PlanTask extends RecursiveAction {
+
+        // RecursiveAction is serializable, though a task is never serialized
+        private static final long serialVersionUID = 1L;
+
+        // members
+        private BallPlanner planner;
+        private int from;
+        private int to;
+        private PlanTask first;
+        private PlanTask second;
+
+        /**
+         * Constructs a task that plans the balls from index from (inclusive)
+         * to index to (exclusive) of the planner, and the tasks that split
+         * the range.
+         *
+         * @param planner the planner, that holds the balls and the step time.
+         * @param from    the first ball index.
+         * @param to      the index after the last ball.
+         */
+        PlanTask(BallPlanner planner, int from, int to) {
+            this.planner = planner;
+            this.from = from;
+            this.to = to;
+
+            if (to - from > GROUP_SIZE) {
+                int middle = (from + to) >>> 1;
+                this.first = new PlanTask(planner, from, middle);
+                this.second = new PlanTask(planner, middle, to);
+            }
+        }
+
+        /**
+         * Make this task and the tasks that split its range ready to run
+         * again, once they are all done.
+         */
+        void reinitializeAll() {
+            this.reinitialize();
+            if (this.first != null) {
+                this.first.reinitializeAll();
+                this.second.reinitializeAll();
+            }
+        }
+
+        /**
+         * Plan the range of balls, or plan both halves of it.
+         */
+        @Override
+        protected void compute() {
+            if (this.first == null) {
+                for (int i = this.from; i < this.to; i++) {
+                    this.planner.balls[i].planMove(this.planner.dt);
+                }
+                return;
+            }
+
+            invokeAll(this.first, this.second);
+        }
+    }
+}
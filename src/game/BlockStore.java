@@ -0,0 +1,210 @@
+package game;
+
+import collidables.Collidable;
+import geometry.Rectangle;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The collision geometry of the blocks of an environment, kept in
+ * parallel primitive arrays indexed by slot, so the collision search
+ * reads the bounds of neighbouring blocks from contiguous memory instead
+ * of following a rectangle and a point object per block.
+ * The slot of a removed block is reused by the next added one.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BlockStore {
+
+    // starting number of slots
+    private static final int INITIAL_CAPACITY = 64;
+
+    // members
+    private double[] minX;
+    private double[] minY;
+    private double[] maxX;
+    private double[] maxY;
+    private long[] order;
+    private Collidable[] collidables;
+    private BitSet alive;
+    private int[] freeSlots;
+    private int freeCount;
+    private int used;
+    private Map<Collidable, Integer> slots;
+
+    /**
+     * Constructs an empty store.
+     */
+    public BlockStore() {
+        this.minX = new double[INITIAL_CAPACITY];
+        this.minY = new double[INITIAL_CAPACITY];
+        this.maxX = new double[INITIAL_CAPACITY];
+        this.maxY = new double[INITIAL_CAPACITY];
+        this.order = new long[INITIAL_CAPACITY];
+        this.collidables = new Collidable[INITIAL_CAPACITY];
+        this.alive = new BitSet(INITIAL_CAPACITY);
+        this.freeSlots = new int[INITIAL_CAPACITY];
+        this.freeCount = 0;
+        this.used = 0;
+        this.slots = new IdentityHashMap<>();
+    }
+
+    /**
+     * Add the given collidable with the bounds of its current collision
+     * rectangle.
+     *
+     * @param c          the collidable to add.
+     * @param addedOrder the order the collidable was added to the
+     *                   environment in.
+     * @return the collidable slot.
+     */
+    public int add(Collidable c, long addedOrder) {
+        int slot;
+        if (this.freeCount > 0) {
+            slot = this.freeSlots[--this.freeCount];
+        } else {
+            if (this.used == this.collidables.length) {
+                this.grow();
+            }
+            slot = this.used++;
+        }
+
+        Rectangle rect = c.getCollisionRectangle();
+        this.minX[slot] = rect.getUpperLeft().getX();
+        this.minY[slot] = rect.getUpperLeft().getY();
+        this.maxX[slot] = this.minX[slot] + rect.getWidth();
+        this.maxY[slot] = this.minY[slot] + rect.getHeight();
+        this.order[slot] = addedOrder;
+        this.collidables[slot] = c;
+        this.alive.set(slot);
+        this.slots.put(c, slot);
+
+        return slot;
+    }
+
+    /**
+     * Remove the given collidable and free its slot.
+     *
+     * @param c the collidable to remove.
+     * @return the slot the collidable had, -1 if it is not in the store.
+     */
+    public int remove(Collidable c) {
+        Integer slot = this.slots.remove(c);
+        if (slot == null) {
+            return -1;
+        }
+
+        this.alive.clear(slot);
+        this.collidables[slot] = null;
+        this.freeSlots[this.freeCount++] = slot;
+
+        return slot;
+    }
+
+    /**
+     * Return the number of collidables in the store.
+     *
+     * @return the collidables count.
+     */
+    public int size() {
+        return this.slots.size();
+    }
+
+    /**
+     * Tell if the given collidable is in the store.
+     *
+     * @param c the collidable.
+     * @return true if the collidable was added and not removed.
+     */
+    public boolean contains(Collidable c) {
+        return this.slots.containsKey(c);
+    }
+
+    /**
+     * Tell if the given slot holds a collidable.
+     *
+     * @param slot the slot.
+     * @return true if the slot is in use.
+     */
+    public boolean isAlive(int slot) {
+        return this.alive.get(slot);
+    }
+
+    /**
+     * Return the left x coordinate of the collidable in the given slot.
+     *
+     * @param slot the slot.
+     * @return the collidable left x coordinate.
+     */
+    public double getMinX(int slot) {
+        return this.minX[slot];
+    }
+
+    /**
+     * Return the top y coordinate of the collidable in the given slot.
+     *
+     * @param slot the slot.
+     * @return the collidable top y coordinate.
+     */
+    public double getMinY(int slot) {
+        return this.minY[slot];
+    }
+
+    /**
+     * Return the right x coordinate of the collidable in the given slot.
+     *
+     * @param slot the slot.
+     * @return the collidable right x coordinate.
+     */
+    public double getMaxX(int slot) {
+        return this.maxX[slot];
+    }
+
+    /**
+     * Return the bottom y coordinate of the collidable in the given slot.
+     *
+     * @param slot the slot.
+     * @return the collidable bottom y coordinate.
+     */
+    public double getMaxY(int slot) {
+        return this.maxY[slot];
+    }
+
+    /**
+     * Return the order the collidable in the given slot was added to the
+     * environment in.
+     *
+     * @param slot the slot.
+     * @return the collidable order.
+     */
+    public long getOrder(int slot) {
+        return this.order[slot];
+    }
+
+    /**
+     * Return the collidable in the given slot.
+     *
+     * @param slot the slot.
+     * @return the collidable, null if the slot is free.
+     */
+    public Collidable getCollidable(int slot) {
+        return this.collidables[slot];
+    }
+
+    /**
+     * Double the number of slots.
+     */
+    private void grow() {
+        int capacity = this.collidables.length * 2;
+        this.minX = Arrays.copyOf(this.minX, capacity);
+        this.minY = Arrays.copyOf(this.minY, capacity);
+        this.maxX = Arrays.copyOf(this.maxX, capacity);
+        this.maxY = Arrays.copyOf(this.maxY, capacity);
+        this.order = Arrays.copyOf(this.order, capacity);
+        this.collidables = Arrays.copyOf(this.collidables, capacity);
+        this.freeSlots = Arrays.copyOf(this.freeSlots, capacity);
+    }
+}
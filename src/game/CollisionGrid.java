@@ -0,0 +1,301 @@
+package game;
+
+import java.util.Arrays;
+
+/**
+ * A uniform grid of square cells that indexes the slots of a block store
+ * by the cells their bounds cover.
+ * A segment can then be walked cell by cell, so only the collidables
+ * along its route need to be tested. Every cell is an array of slots.
+ *
+ * @author Shahaf Mordechay
+ */
+public class CollisionGrid {
+
+    // starting number of slots a cell holds
+    private static final int INITIAL_CELL_CAPACITY = 4;
+
+    // members
+    private int cellSize;
+    private BlockStore store;
+    private int minCol;
+    private int minRow;
+    private int cols;
+    private int rows;
+    private int[][] cells;
+    private int[] cellCounts;
+
+    /**
+     * Constructs and initializes an empty grid with a specified cell size.
+     *
+     * @param cellSize the width and height of each cell.
+     * @param store    the store of the indexed slots bounds.
+     */
+    public CollisionGrid(int cellSize, BlockStore store) {
+        this.cellSize = cellSize;
+        this.store = store;
+        this.minCol = 0;
+        this.minRow = 0;
+        this.cols = 0;
+        this.rows = 0;
+        this.cells = new int[0][];
+        this.cellCounts = new int[0];
+    }
+
+    /**
+     * Add the given slot to every cell its bounds cover.
+     * The grid grows if the bounds are out of its current bounds.
+     *
+     * @param slot the store slot to add.
+     */
+    public void add(int slot) {
+        int fromCol = this.cellOf(this.store.getMinX(slot));
+        int fromRow = this.cellOf(this.store.getMinY(slot));
+        int toCol = this.cellOf(this.store.getMaxX(slot));
+        int toRow = this.cellOf(this.store.getMaxY(slot));
+
+        if (fromCol < this.minCol || fromRow < this.minRow
+                || toCol >= this.minCol + this.cols
+                || toRow >= this.minRow + this.rows) {
+            this.resize(fromCol, fromRow, toCol, toRow);
+        }
+
+        this.insert(slot, fromCol, fromRow, toCol, toRow);
+    }
+
+    /**
+     * Remove the given slot from every cell its bounds cover.
+     * The slot bounds must not have changed since it was added.
+     *
+     * @param slot the store slot to remove.
+     */
+    public void remove(int slot) {
+        int fromCol = Math.max(this.cellOf(this.store.getMinX(slot)), this.minCol);
+        int fromRow = Math.max(this.cellOf(this.store.getMinY(slot)), this.minRow);
+        int toCol = Math.min(this.cellOf(this.store.getMaxX(slot)), this.minCol + this.cols - 1);
+        int toRow = Math.min(this.cellOf(this.store.getMaxY(slot)), this.minRow + this.rows - 1);
+
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int col = fromCol; col <= toCol; col++) {
+                int index = this.indexOf(col, row);
+                int[] cell = this.cells[index];
+                int count = this.cellCounts[index];
+
+                // the order of a cell slots does not matter, move the last one over it
+                for (int i = 0; i < count; i++) {
+                    if (cell[i] == slot) {
+                        cell[i] = cell[count - 1];
+                        this.cellCounts[index] = count - 1;
+                        break;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Return the slots of the cell with the given index, of which only
+     * the first getCellCount(index) are in use.
+     *
+     * @param index the cell index, as returned by cellsAlong.
+     * @return the cell slots.
+     */
+    public int[] getCell(int index) {
+        return this.cells[index];
+    }
+
+    /**
+     * Return the number of slots in the cell with the given index.
+     *
+     * @param index the cell index, as returned by cellsAlong.
+     * @return the cell slots count.
+     */
+    public int getCellCount(int index) {
+        return this.cellCounts[index];
+    }
+
+    /**
+     * Walk the cells the segment from (x0, y0) to (x1, y1) passes through,
+     * together with the cells that are up to the given radius away from it,
+     * and add the index of every non-empty one of them to the given result.
+     * A collidable that covers several of those cells will show up in
+     * several of the returned cells.
+     *
+     * @param x0     segment start x coordinate.
+     * @param y0     segment start y coordinate.
+     * @param x1     segment end x coordinate.
+     * @param y1     segment end y coordinate.
+     * @param radius how far from the segment to look, 0 for the segment only.
+     * @param out    the result to add the visited cells indices to.
+     */
+    public void cellsAlong(double x0, double y0, double x1, double y1,
+                           double radius, CollisionResult out) {
+
+        if (this.cols == 0) {
+            return;
+        }
+
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+
+        int col = this.cellOf(x0);
+        int row = this.cellOf(y0);
+        int endCol = this.cellOf(x1);
+        int endRow = this.cellOf(y1);
+        int reach = (int) Math.ceil(radius / this.cellSize);
+
+        int stepCol = Double.compare(dx, 0);
+        int stepRow = Double.compare(dy, 0);
+
+        // segment parameter at the next vertical and horizontal cell border
+        double nextColT = Double.POSITIVE_INFINITY;
+        double colDeltaT = Double.POSITIVE_INFINITY;
+        if (stepCol != 0) {
+            double border = (stepCol > 0 ? col + 1 : col) * (double) this.cellSize;
+            nextColT = (border - x0) / dx;
+            colDeltaT = this.cellSize / Math.abs(dx);
+        }
+
+        double nextRowT = Double.POSITIVE_INFINITY;
+        double rowDeltaT = Double.POSITIVE_INFINITY;
+        if (stepRow != 0) {
+            double border = (stepRow > 0 ? row + 1 : row) * (double) this.cellSize;
+            nextRowT = (border - y0) / dy;
+            rowDeltaT = this.cellSize / Math.abs(dy);
+        }
+
+        this.visit(col - reach, row - reach, col + reach, row + reach, out);
+
+        /* each step adds only the strip of cells that enters the
+         * neighbourhood, so no cell is visited twice */
+        int steps = Math.abs(endCol - col) + Math.abs(endRow - row);
+        for (int i = 0; i < steps; i++) {
+            if (nextColT < nextRowT) {
+                col += stepCol;
+                nextColT += colDeltaT;
+                int stripCol = col + stepCol * reach;
+                this.visit(stripCol, row - reach, stripCol, row + reach, out);
+            } else {
+                row += stepRow;
+                nextRowT += rowDeltaT;
+                int stripRow = row + stepRow * reach;
+                this.visit(col - reach, stripRow, col + reach, stripRow, out);
+            }
+        }
+    }
+
+    /**
+     * Add every cell in the given range that is inside the grid and
+     * not empty to the given list.
+     *
+     * @param fromCol the first column.
+     * @param fromRow the first row.
+     * @param toCol   the last column.
+     * @param toRow   the last row.
+     * @param out     the result to add the cells indices to.
+     */
+    private void visit(int fromCol, int fromRow, int toCol, int toRow,
+                       CollisionResult out) {
+        fromCol = Math.max(fromCol, this.minCol);
+        fromRow = Math.max(fromRow, this.minRow);
+        toCol = Math.min(toCol, this.minCol + this.cols - 1);
+        toRow = Math.min(toRow, this.minRow + this.rows - 1);
+
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int col = fromCol; col <= toCol; col++) {
+                int index = this.indexOf(col, row);
+                if (this.cellCounts[index] != 0) {
+                    out.addCell(index);
+                }
+            }
+        }
+    }
+
+    /**
+     * Grow the grid so it covers the given cells range as well as the
+     * current one, and move the cells to their place in the new grid.
+     *
+     * @param fromCol the first column to cover.
+     * @param fromRow the first row to cover.
+     * @param toCol   the last column to cover.
+     * @param toRow   the last row to cover.
+     */
+    private void resize(int fromCol, int fromRow, int toCol, int toRow) {
+        if (this.cols != 0) {
+            fromCol = Math.min(fromCol, this.minCol);
+            fromRow = Math.min(fromRow, this.minRow);
+            toCol = Math.max(toCol, this.minCol + this.cols - 1);
+            toRow = Math.max(toRow, this.minRow + this.rows - 1);
+        }
+
+        int newCols = toCol - fromCol + 1;
+        int newRows = toRow - fromRow + 1;
+        int[][] newCells = new int[newCols * newRows][];
+        int[] newCounts = new int[newCols * newRows];
+
+        for (int row = this.minRow; row < this.minRow + this.rows; row++) {
+            for (int col = this.minCol; col < this.minCol + this.cols; col++) {
+                int newIndex = (row - fromRow) * newCols + (col - fromCol);
+                newCells[newIndex] = this.cells[this.indexOf(col, row)];
+                newCounts[newIndex] = this.cellCounts[this.indexOf(col, row)];
+            }
+        }
+
+        for (int i = 0; i < newCells.length; i++) {
+            if (newCells[i] == null) {
+                newCells[i] = new int[INITIAL_CELL_CAPACITY];
+            }
+        }
+
+        this.minCol = fromCol;
+        this.minRow = fromRow;
+        this.cols = newCols;
+        this.rows = newRows;
+        this.cells = newCells;
+        this.cellCounts = newCounts;
+    }
+
+    /**
+     * Add the given slot to all the cells in the given range.
+     *
+     * @param slot    the slot to add.
+     * @param fromCol the first column.
+     * @param fromRow the first row.
+     * @param toCol   the last column.
+     * @param toRow   the last row.
+     */
+    private void insert(int slot, int fromCol, int fromRow, int toCol, int toRow) {
+        for (int row = fromRow; row <= toRow; row++) {
+            for (int col = fromCol; col <= toCol; col++) {
+                int index = this.indexOf(col, row);
+                if (this.cellCounts[index] == this.cells[index].length) {
+                    this.cells[index] = Arrays.copyOf(this.cells[index],
+                            this.cells[index].length * 2);
+                }
+
+                this.cells[index][this.cellCounts[index]++] = slot;
+            }
+        }
+    }
+
+    /**
+     * Return the cell column (or row) of the given coordinate.
+     *
+     * @param coordinate x or y coordinate.
+     * @return the matching cell column or row.
+     */
+    private int cellOf(double coordinate) {
+        return (int) Math.floor(coordinate / this.cellSize);
+    }
+
+    /**
+     * Return the index of the cell at (col, row) in the cells array.
+     *
+     * @param col the cell column.
+     * @param row the cell row.
+     * @return the cell index.
+     */
+    private int indexOf(int col, int row) {
+        return (row - this.minRow) * this.cols + (col - this.minCol);
+    }
+}
@@ -0,0 +1,153 @@
+package game;
+
+import collidables.Collidable;
+
+import java.util.Arrays;
+
+/**
+ * A reusable holder of the closest collision found along a trajectory.
+ * The owner keeps one instance and passes it to every query, so
+ * looking for a collision does not create new objects.
+ *
+ * @author Shahaf Mordechay
+ */
+public class CollisionResult {
+
+    // members
+    private boolean found;
+    private double x;
+    private double y;
+    private double time;
+    private Collidable collidable;
+    private long order;
+    private int[] cells;
+    private int cellCount;
+
+    /**
+     * Constructs an empty collision result.
+     */
+    public CollisionResult() {
+        this.cells = new int[16];
+        this.cellCount = 0;
+        this.clear();
+    }
+
+    /**
+     * Forget the last found collision.
+     */
+    public void clear() {
+        this.found = false;
+        this.x = 0;
+        this.y = 0;
+        this.time = Double.POSITIVE_INFINITY;
+        this.collidable = null;
+        this.order = Long.MAX_VALUE;
+    }
+
+    /**
+     * Keep the given collision if it is closer than the current one.
+     * On a tie, the collidable that was added to the environment
+     * first is kept.
+     *
+     * @param t          the collision time along the trajectory (0 to 1).
+     * @param hitX       the touched point x coordinate.
+     * @param hitY       the touched point y coordinate.
+     * @param c          the collided object.
+     * @param addedOrder the order the object was added to the environment in.
+     */
+    public void offer(double t, double hitX, double hitY, Collidable c, long addedOrder) {
+        if (t < this.time || (t == this.time && addedOrder < this.order)) {
+            this.found = true;
+            this.time = t;
+            this.x = hitX;
+            this.y = hitY;
+            this.collidable = c;
+            this.order = addedOrder;
+        }
+    }
+
+    /**
+     * Tells if a collision was found.
+     *
+     * @return true if a collision was found.
+     */
+    public boolean isFound() {
+        return this.found;
+    }
+
+    /**
+     * Return the collision point x coordinate.
+     *
+     * @return the collision point x coordinate.
+     */
+    public double getX() {
+        return this.x;
+    }
+
+    /**
+     * Return the collision point y coordinate.
+     *
+     * @return the collision point y coordinate.
+     */
+    public double getY() {
+        return this.y;
+    }
+
+    /**
+     * Return the collision time along the trajectory, where 0 is the
+     * trajectory start and 1 is its end.
+     *
+     * @return the collision time.
+     */
+    public double getTime() {
+        return this.time;
+    }
+
+    /**
+     * Return the collided object.
+     *
+     * @return the collided object.
+     */
+    public Collidable getCollidable() {
+        return this.collidable;
+    }
+
+    /**
+     * Forget the grid cells added while searching.
+     */
+    void clearCells() {
+        this.cellCount = 0;
+    }
+
+    /**
+     * Add a grid cell index to search.
+     *
+     * @param index the grid cell index.
+     */
+    void addCell(int index) {
+        if (this.cellCount == this.cells.length) {
+            this.cells = Arrays.copyOf(this.cells, this.cells.length * 2);
+        }
+
+        this.cells[this.cellCount++] = index;
+    }
+
+    /**
+     * Return the number of grid cells added while searching.
+     *
+     * @return the grid cells count.
+     */
+    int getCellCount() {
+        return this.cellCount;
+    }
+
+    /**
+     * Return the grid cell index added at the given position.
+     *
+     * @param i the position, from 0 to getCellCount().
+     * @return the grid cell index.
+     */
+    int getCell(int i) {
+        return this.cells[i];
+    }
+}
@@ -1,22 +1,38 @@
 package game;
 
+import collidables.Block;
 import collidables.Collidable;
 import geometry.Line;
 import geometry.Point;
 import geometry.Rectangle;
 
 import java.util.ArrayList;
+import java.util.IdentityHashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * List of all collidable objects in game.
+ * Blocks do not move, so their bounds are kept in a block store and
+ * indexed by a uniform grid, and only the blocks along a trajectory are
+ * tested for collision, straight from the store arrays.
  *
  * @author Shahaf Mordechay
  */
 public class GameEnvironment {
 
+    // size of each collision grid cell
+    private static final int CELL_SIZE = 50;
+
     private List<Collidable> collidableList;
+    private BlockStore blocks;
+    private CollisionGrid grid;
+    private List<GridEntry> movingList;
+    private Map<Collidable, GridEntry> entries;
+    private long addedCount;
+    private long blockAdditions;
+    private CollisionResult closest;
 
     /**
      * Constructs and initializes a list that will hold all of the
@@ -24,6 +40,13 @@ public class GameEnvironment {
      */
     public GameEnvironment() {
         collidableList = new LinkedList<>();
+        blocks = new BlockStore();
+        grid = new CollisionGrid(CELL_SIZE, blocks);
+        movingList = new ArrayList<>();
+        entries = new IdentityHashMap<>();
+        addedCount = 0;
+        blockAdditions = 0;
+        closest = new CollisionResult();
     }
 
     /**
@@ -42,6 +65,15 @@ public class GameEnvironment {
      */
     public void addCollidable(Collidable c) {
         this.collidableList.add(c);
+
+        if (c instanceof Block) {
+            this.grid.add(this.blocks.add(c, this.addedCount++));
+            this.blockAdditions++;
+        } else {
+            GridEntry entry = new GridEntry(c, this.addedCount++);
+            this.entries.put(c, entry);
+            this.movingList.add(entry);
+        }
     }
 
     /**
@@ -51,6 +83,18 @@ public class GameEnvironment {
      */
     public void removeCollidable(Collidable c) {
         this.collidableList.remove(c);
+
+        if (c instanceof Block) {
+            int slot = this.blocks.remove(c);
+            if (slot != -1) {
+                this.grid.remove(slot);
+            }
+        } else {
+            GridEntry entry = this.entries.remove(c);
+            if (entry != null) {
+                this.movingList.remove(entry);
+            }
+        }
     }
 
     /**
@@ -58,54 +102,176 @@ public class GameEnvironment {
      * If this object will not collide with any of the sprites.collidables
      * in this collection, return null. Else, return the information
      * about the closest collision that is going to occur.
+     * The search reuses a single result, so only a found collision
+     * creates new objects.
      *
      * @param trajectory the line that signifies the route.
      * @return           closest collision information.
      */
     public CollisionInfo getClosestCollision(Line trajectory) {
+        Point start = trajectory.getStart();
+        Point end = trajectory.getEnd();
+        CollisionResult result = this.closest;
 
-        // intersected sprites.collidables with given line
-        List<Collidable> interList = new ArrayList<>();
+        if (!this.findClosestCollision(start.getX(), start.getY(),
+                end.getX(), end.getY(), 0, result)) {
+            return null;
+        }
 
-        // add intersected sprites.collidables to interList
-        for (Collidable collidable : collidableList) {
-            // current [i] collidable
-            Rectangle currRec = collidable.getCollisionRectangle();
+        return new CollisionInfo(new Point(result.getX(), result.getY()),
+                result.getCollidable());
+    }
 
-            Point point = trajectory.closestIntersectionToStartOfLine(currRec);
+    /**
+     * Return the number of blocks that were ever added to this environment.
+     * A collision with the blocks found before a block was added may not
+     * be the closest one anymore.
+     *
+     * @return the number of added blocks.
+     */
+    public long getBlockAdditions() {
+        return this.blockAdditions;
+    }
 
-            // if intersected
-            if (point != null) {
-                interList.add(collidable);
-            }
+    /**
+     * Tell if the given collidable may be collided with: it is in this
+     * environment, and if it is a block, the hits it took in the current
+     * step did not use it up.
+     *
+     * @param c the collidable.
+     * @return true if the collidable may be collided with.
+     */
+    public boolean isCollidable(Collidable c) {
+        if (this.blocks.contains(c)) {
+            return !((Block) c).isUsedUp();
         }
 
-        // no intersected sprites.collidables with given line
-        if (interList.isEmpty()) {
-            return null;
+        return this.entries.containsKey(c);
+    }
+
+    /**
+     * Assume a circle whose center moves from (x0, y0) to (x1, y1), find
+     * the closest collision that is going to occur and write it into the
+     * given result.
+     * The result time is the part of the route the center moves before
+     * the collision, and its point is the touched point on the collidable.
+     * A radius of 0 checks the route of a single point.
+     * The search makes a single pass over the collidables along the route
+     * and creates no new objects.
+     *
+     * @param x0     the route start x coordinate.
+     * @param y0     the route start y coordinate.
+     * @param x1     the route end x coordinate.
+     * @param y1     the route end y coordinate.
+     * @param radius the moving circle radius.
+     * @param result the result to write the closest collision into.
+     * @return true if a collision was found, false otherwise.
+     */
+    public boolean findClosestCollision(double x0, double y0, double x1, double y1,
+                                        double radius, CollisionResult result) {
+        this.findClosestBlockCollision(x0, y0, x1, y1, radius, result);
+        return this.offerMovingCollisions(x0, y0, x1, y1, radius, result);
+    }
+
+    /**
+     * Like findClosestCollision, but only look for collisions with the
+     * blocks, which do not move.
+     * The search only reads the environment, so several threads may
+     * search it at the same time as long as no collidable is added or
+     * removed meanwhile.
+     *
+     * @param x0     the route start x coordinate.
+     * @param y0     the route start y coordinate.
+     * @param x1     the route end x coordinate.
+     * @param y1     the route end y coordinate.
+     * @param radius the moving circle radius.
+     * @param result the result to write the closest collision into.
+     * @return true if a collision was found, false otherwise.
+     */
+    public boolean findClosestBlockCollision(double x0, double y0, double x1, double y1,
+                                             double radius, CollisionResult result) {
+        result.clear();
+
+        // grid cells along the route
+        result.clearCells();
+        this.grid.cellsAlong(x0, y0, x1, y1, radius, result);
+
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+
+        /* a block that covers several cells is tested once per cell,
+         * which does not change the result */
+        for (int i = 0; i < result.getCellCount(); i++) {
+            int cell = result.getCell(i);
+            int[] slots = this.grid.getCell(cell);
+            int count = this.grid.getCellCount(cell);
+
+            for (int j = 0; j < count; j++) {
+                int slot = slots[j];
+                double minX = this.blocks.getMinX(slot);
+                double minY = this.blocks.getMinY(slot);
+                double maxX = this.blocks.getMaxX(slot);
+                double maxY = this.blocks.getMaxY(slot);
+
+                double t;
+                if (radius == 0) {
+                    t = Rectangle.crossingTime(minX, minY, maxX, maxY, x0, y0, dx, dy);
+                } else {
+                    t = Rectangle.sweptCircleTime(minX, minY, maxX, maxY, x0, y0, dx, dy, radius);
+                }
+
+                // a block used up in this step is removed once the step is over
+                Collidable c = this.blocks.getCollidable(slot);
+                if (t >= 0 && !((Block) c).isUsedUp()) {
+                    // the touched point on the block
+                    double hitX = Math.max(minX, Math.min(x0 + t * dx, maxX));
+                    double hitY = Math.max(minY, Math.min(y0 + t * dy, maxY));
+                    result.offer(t, hitX, hitY, c, this.blocks.getOrder(slot));
+                }
+            }
         }
 
-        // given line start point
-        Point start = trajectory.getStart();
+        return result.isFound();
+    }
+
+    /**
+     * Offer the collisions with the collidables that may move, like the
+     * paddle, to the given result, which keeps the closest collision.
+     *
+     * @param x0     the route start x coordinate.
+     * @param y0     the route start y coordinate.
+     * @param x1     the route end x coordinate.
+     * @param y1     the route end y coordinate.
+     * @param radius the moving circle radius.
+     * @param result the result holding the closest collision found so far.
+     * @return true if the result holds a collision, false otherwise.
+     */
+    public boolean offerMovingCollisions(double x0, double y0, double x1, double y1,
+                                         double radius, CollisionResult result) {
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+
+        for (int i = 0; i < this.movingList.size(); i++) {
+            GridEntry entry = this.movingList.get(i);
+            Rectangle rect = entry.getCollidable().getCollisionRectangle();
+
+            double t;
+            if (radius == 0) {
+                t = rect.crossingTime(x0, y0, dx, dy);
+            } else {
+                t = rect.sweptCircleTime(x0, y0, dx, dy, radius);
+            }
 
-        // closest collidable and point to start of line
-        Rectangle firstRec = interList.get(0).getCollisionRectangle();
-        Point closestPoint = trajectory.closestIntersectionToStartOfLine(firstRec);
-        Collidable closestCol = interList.get(0);
-
-        /* check if there is any closer intersection point with collidable
-         * to the start of given line.
-         * if so apply it to closestPoint and closestCol values*/
-        for (int i = 1; i < interList.size(); i++) {
-            Rectangle currRec = interList.get(i).getCollisionRectangle();
-            Point currPoint = trajectory.closestIntersectionToStartOfLine(currRec);
-
-            if (currPoint.distance(start) < closestPoint.distance(start)) {
-                closestPoint = currPoint;
-                closestCol = interList.get(i);
+            if (t >= 0) {
+                // the touched point on the collidable
+                double minX = rect.getUpperLeft().getX();
+                double minY = rect.getUpperLeft().getY();
+                double hitX = Math.max(minX, Math.min(x0 + t * dx, minX + rect.getWidth()));
+                double hitY = Math.max(minY, Math.min(y0 + t * dy, minY + rect.getHeight()));
+                result.offer(t, hitX, hitY, entry.getCollidable(), entry.getOrder());
             }
         }
 
-        return new CollisionInfo(closestPoint, closestCol);
+        return result.isFound();
     }
 }
@@ -11,8 +11,8 @@ import other.Counter;
 import score.HighScoresTable;
 
 import java.io.File;
-import java.io.IOException;
 import java.util.List;
+import java.util.concurrent.CompletionException;
 
 /**
  * Run all the game levels, end each level or the whole
@@ -22,8 +22,8 @@ import java.util.List;
  */
 public class GameFlow {
 
-    // player lives
-    private static final int PLAYER_LIVES = 7;
+    // player lives at the start of a game, also played by the simulations
+    public static final int PLAYER_LIVES = 7;
 
     // animation stop key
     private static final String STOP_KEY = KeyboardSensor.SPACE_KEY;
@@ -57,8 +57,51 @@ public class GameFlow {
      * @param levels all the game levels information.
      */
     public void runLevels(List<LevelInformation> levels) {
+        this.runLevels(LevelPreloader.of(levels));
+    }
 
-        for (LevelInformation levelInfo : levels) {
+    /**
+     * running al game levels.
+     * Takes each level from the preloader, starts preloading the next one
+     * in the background, and runs it.
+     * Ends the level when there are no more game blocks.
+     * Ends game when player have no life left.
+     *
+     * @param levels a preloader of all the game levels.
+     */
+    public void runLevels(LevelPreloader levels) {
+        this.runLevels(levels, null);
+    }
+
+    /**
+     * running al game levels of a level definitions file.
+     * Takes each level from the preloader, starts preloading the next one
+     * in the background, and runs it.
+     * Ends the level when there are no more game blocks.
+     * Ends game when player have no life left.
+     *
+     * @param levels      a preloader of all the game levels.
+     * @param definitions the level definitions file of the levels, null if
+     *                    they were not read from a file.
+     */
+    public void runLevels(LevelPreloader levels, String definitions) {
+
+        levels.preload(0);
+
+        for (int i = 0; i < levels.size(); i++) {
+
+            // waits only if the level is not loaded yet
+            LevelInformation levelInfo;
+            try {
+                levelInfo = levels.get(i);
+            } catch (CompletionException e) {
+                System.err.println("Failed loading level");
+                e.printStackTrace(System.err);
+                break;
+            }
+
+            // load the next level while this one is played
+            levels.preload(i + 1);
 
             // create level
             GameLevel level = new GameLevel(levelInfo,
@@ -66,6 +109,7 @@ public class GameFlow {
                     this.animationRunner,
                     this.score,
                     this.numberOfLives);
+            level.setDefinitions(definitions, i);
 
             // initialize level
             level.initialize();
@@ -86,16 +130,11 @@ public class GameFlow {
         DialogManager dialog = this.animationRunner.getDialogManager();
         File highScores = new File("highscores");
         HighScoresTable table = new HighScoresTable(10);
-        try {
-            if (!highScores.exists()) {
-                table.save(highScores);
-            } else {
-                table = HighScoresTable.loadFromFile(highScores);
-                table.addToTable(this.score.getValue(), dialog);
-            }
-        } catch (IOException e) {
-            System.err.println("Failed saving object");
-            e.printStackTrace(System.err);
+        if (!highScores.exists()) {
+            table.save(highScores);
+        } else {
+            table = HighScoresTable.loadFromFile(highScores);
+            table.addToTable(this.score.getValue(), dialog);
         }
 
         // end screen
@@ -0,0 +1,436 @@
+package game;
+
+import collidables.Block;
+import collidables.Collidable;
+import collidables.Paddle;
+import collidables.PaddleInput;
+import geometry.Point;
+import geometry.Rectangle;
+import hitlisteners.BallRemover;
+import hitlisteners.BlockRemover;
+import hitlisteners.HitListener;
+import hitlisteners.ScoreTrackingListener;
+import levels.LevelInformation;
+import other.Counter;
+import other.Velocity;
+import panel.LevelName;
+import panel.LivesIndicator;
+import panel.ScoreIndicator;
+import sprites.Ball;
+import sprites.Sprite;
+import sprites.SpriteCollection;
+import sprites.StaticLayer;
+
+import java.awt.Color;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * All the objects of a level and the rules that update them.
+ * The world does not need a screen or a keyboard, so it can be played
+ * on the screen by a game level, or stepped headless at any speed.
+ *
+ * @author Shahaf Mordechay
+ */
+public class GameWorld {
+
+    // game fixed properties
+    private static final Color PANEL_COLOR = Color.lightGray;
+    private static final Color FRAME_COLOR = Color.darkGray;
+    private static final Color PADDLE_COLOR = Color.yellow;
+    private static final Color BALL_COLOR = Color.white;
+    private static final int PADDLE_HEIGHT = 15;
+    private static final int RADIUS = 5;
+
+    // the fewest balls whose moves are planned on all the cores
+    private static final int PARALLEL_BALLS = 64;
+
+    // members
+    private SpriteCollection sprites;
+    private StaticLayer staticLayer;
+    private GameEnvironment environment;
+    private Paddle paddle;
+    private PaddleInput paddleInput;
+    private List<Ball> balls;
+    private BallPlanner planner;
+    private HitEventBus hitEvents;
+    private Counter remainingBlocks;
+    private Counter remainingBalls;
+    private Counter score;
+    private Counter numberOfLives;
+    private LevelInformation information;
+    private int width;
+    private int height;
+    private int frameSize;
+
+    /**
+     * Constructs a new empty world of a level.
+     *
+     * @param information   the level game information.
+     * @param width         the world width.
+     * @param height        the world height.
+     * @param frameSize     the size of the frame and indicator panel.
+     * @param score         counter of the player game score.
+     * @param numberOfLives counter of the player lives.
+     */
+    public GameWorld(LevelInformation information, int width, int height,
+                     int frameSize, Counter score, Counter numberOfLives) {
+        this.sprites = new SpriteCollection();
+        this.staticLayer = new StaticLayer(width, height);
+        this.environment = new GameEnvironment();
+        this.balls = new ArrayList<>();
+        this.planner = new BallPlanner(ForkJoinPool.commonPool());
+        this.hitEvents = new HitEventBus();
+        this.remainingBlocks = new Counter();
+        this.remainingBalls = new Counter();
+        this.score = score;
+        this.numberOfLives = numberOfLives;
+        this.information = information;
+        this.width = width;
+        this.height = height;
+        this.frameSize = frameSize;
+    }
+
+    /**
+     * Return this world sprites.
+     *
+     * @return this world sprites.
+     */
+    public SpriteCollection getSprites() {
+        return this.sprites;
+    }
+
+    /**
+     * Return this world collidables environment.
+     *
+     * @return this world environment.
+     */
+    public GameEnvironment getEnvironment() {
+        return this.environment;
+    }
+
+    /**
+     * Return this world paddle.
+     *
+     * @return this world paddle.
+     */
+    public Paddle getPaddle() {
+        return this.paddle;
+    }
+
+    /**
+     * Return the balls that are currently in the world.
+     *
+     * @return this world balls.
+     */
+    public List<Ball> getBalls() {
+        return this.balls;
+    }
+
+    /**
+     * Return the queue of this world block hits, which are applied once
+     * every step is over.
+     *
+     * @return this world hit events.
+     */
+    public HitEventBus getHitEvents() {
+        return this.hitEvents;
+    }
+
+    /**
+     * Return this level information.
+     *
+     * @return this level information.
+     */
+    public LevelInformation getInformation() {
+        return this.information;
+    }
+
+    /**
+     * Return this world remaining blocks.
+     *
+     * @return this world remaining blocks.
+     */
+    public int getRemainingBlocks() {
+        return this.remainingBlocks.getValue();
+    }
+
+    /**
+     * Return this world remaining balls.
+     *
+     * @return this world remaining balls.
+     */
+    public int getRemainingBalls() {
+        return this.remainingBalls.getValue();
+    }
+
+    /**
+     * Return the player current score.
+     *
+     * @return the player score.
+     */
+    public int getScore() {
+        return this.score.getValue();
+    }
+
+    /**
+     * Return the player remaining lives.
+     *
+     * @return the player lives.
+     */
+    public int getLives() {
+        return this.numberOfLives.getValue();
+    }
+
+    /**
+     * Add given collidable to the world environment.
+     *
+     * @param c the collidable to add.
+     */
+    public void addCollidable(Collidable c) {
+        this.environment.addCollidable(c);
+    }
+
+    /**
+     * Add given sprite to the world sprites.
+     *
+     * @param s the sprite to add.
+     */
+    public void addSprite(Sprite s) {
+        this.sprites.addSprite(s);
+    }
+
+    /**
+     * Add given sprite to the world static layer, which is drawn once and
+     * reused until one of its sprites changes.
+     *
+     * @param s the sprite that does not move to add.
+     */
+    public void addStaticSprite(Sprite s) {
+        this.staticLayer.addSprite(s);
+    }
+
+    /**
+     * Remove given collidable from the world environment.
+     *
+     * @param c the collidable to remove.
+     */
+    public void removeCollidable(Collidable c) {
+        this.environment.removeCollidable(c);
+    }
+
+    /**
+     * Remove given sprite from the world sprites.
+     *
+     * @param s the sprite to remove.
+     */
+    public void removeSprite(Sprite s) {
+        this.sprites.removeSprite(s);
+    }
+
+    /**
+     * Remove given sprite from the world static layer.
+     *
+     * @param s the sprite to remove.
+     */
+    public void removeStaticSprite(Sprite s) {
+        this.staticLayer.removeSprite(s);
+    }
+
+    /**
+     * Add given ball to the world sprites and balls.
+     *
+     * @param b the ball to add.
+     */
+    public void addBall(Ball b) {
+        this.sprites.addSprite(b);
+        this.balls.add(b);
+    }
+
+    /**
+     * Remove given ball from the world sprites and balls.
+     *
+     * @param b the ball to remove.
+     */
+    public void removeBall(Ball b) {
+        this.sprites.removeSprite(b);
+        this.balls.remove(b);
+    }
+
+    /**
+     * Create the frame blocks of the world including
+     * the bottom death-region.
+     */
+    private void createFrame() {
+
+        this.staticLayer.addSprite(this.information.getBackground());
+        this.sprites.addSprite(this.staticLayer);
+
+        // create frame (left, right, top)
+        Rectangle leftSideBlock = new Rectangle(0, 0, this.frameSize, this.height);
+        Block leftFrame = new Block(leftSideBlock, FRAME_COLOR);
+        leftFrame.addToGame(this);
+
+        Rectangle rightSideBlock = new Rectangle(this.width - this.frameSize, 0,
+                this.frameSize, this.height);
+        Block rightFrame = new Block(rightSideBlock, FRAME_COLOR);
+        rightFrame.addToGame(this);
+
+        Rectangle upperBlock = new Rectangle(0, this.frameSize, this.width, this.frameSize);
+        Block upperFrame = new Block(upperBlock, FRAME_COLOR);
+        upperFrame.addToGame(this);
+
+        // death-region
+        Rectangle lowerBlock = new Rectangle(0, this.height + 2 * RADIUS, this.width, this.frameSize);
+        Block deathRegion = new Block(lowerBlock, FRAME_COLOR);
+        BallRemover ballRemover = new BallRemover(this, this.remainingBalls);
+        deathRegion.addHitListener(ballRemover);
+        deathRegion.addToGame(this);
+
+        // life, score and level name panel, drawn over the frame sides
+        Rectangle panelShape = new Rectangle(0, 0, this.width, this.frameSize);
+        Block panel = new Block(panelShape, PANEL_COLOR);
+        this.staticLayer.addSprite(panel);
+        ScoreTrackingListener scoreTracking = new ScoreTrackingListener(this.score);
+        panel.addHitListener(scoreTracking);
+        ScoreIndicator scoreIndicator = new ScoreIndicator(panel, this.score);
+        scoreIndicator.addToGame(this);
+        LivesIndicator livesIndicator = new LivesIndicator(panel, this.numberOfLives);
+        livesIndicator.addToGame(this);
+        LevelName name = new LevelName(panel, this.information.levelName());
+        name.addToGame(this);
+    }
+
+    /**
+     * Create a new paddle and add it to the world.
+     */
+    private void createPaddleAndAddToGame() {
+
+        int paddleWidth = this.information.paddleWidth();
+
+        // paddle start position
+        int paddleX = this.width / 2 - paddleWidth / 2;
+        int paddleY = (int) (this.height * 0.9);
+
+        // create paddle rectangle
+        Rectangle paddleRectangle = new Rectangle(paddleX, paddleY,
+                                        paddleWidth, PADDLE_HEIGHT);
+
+        // create paddle block
+        Block paddleBlock = new Block(paddleRectangle, PADDLE_COLOR);
+
+        // create paddle
+        this.paddle = new Paddle(paddleBlock, this.paddleInput,
+                this.frameSize, this.width - this.frameSize);
+
+        // set paddle speed
+        this.paddle.setSpeed(this.information.paddleSpeed());
+
+        // add paddle to world
+        this.paddle.addToGame(this);
+    }
+
+    /**
+     * Create a new ball and add it to the world.
+     *
+     * @param velocity ball wanted velocity.
+     */
+    private void createBallAndAddToGame(Velocity velocity) {
+
+        // ball start point
+        double centerX = this.width / 2;
+        double centerY = this.height * 0.9 - RADIUS;
+
+        Point center = new Point(centerX, centerY);
+        Ball ball = new Ball(center, RADIUS, BALL_COLOR, this.environment);
+        ball.setVelocity(velocity);
+        ball.addToGame(this);
+        this.remainingBalls.increase(1);
+    }
+
+    /**
+     * Create the level balls for a new turn.
+     */
+    public void createBalls() {
+
+        for (int i = 0; i < this.information.numberOfBalls(); i++) {
+            createBallAndAddToGame(this.information.initialBallVelocities().get(i));
+        }
+    }
+
+    /**
+     * Initialize the world: create the Blocks and the Paddle
+     * and add them to the world.
+     *
+     * @param input the input that moves the paddle.
+     */
+    public void initialize(PaddleInput input) {
+        this.paddleInput = input;
+
+        BlockRemover blockRemover = new BlockRemover(this, remainingBlocks);
+        ScoreTrackingListener scoreTracking = new ScoreTrackingListener(this.score);
+        List<HitListener> hitListeners = Arrays.asList(blockRemover, scoreTracking);
+
+        // create frame
+        createFrame();
+
+        int numOfBlocks = this.information.numberOfBlocksToRemove();
+        for (int i = 0; i < numOfBlocks; i++) {
+            for (HitListener hitListener : hitListeners) {
+                this.information.blocks().get(i).addHitListener(hitListener);
+            }
+            this.information.blocks().get(i).addToGame(this);
+            this.remainingBlocks.increase(1);
+        }
+
+        // create paddle
+        createPaddleAndAddToGame();
+    }
+
+    /**
+     * Move every object in the world by the given amount of time.
+     * With many balls and more than one core, the blocks each ball is going to hit are first
+     * found for all the balls at the same time, and then every object
+     * moves in turn and applies its hits, so the hits happen in the same
+     * order either way.
+     * The hits are applied, and their listeners notified, once every
+     * object has moved.
+     *
+     * @param dt the amount of seconds passed since the last call.
+     */
+    public void step(double dt) {
+        if (this.balls.size() >= PARALLEL_BALLS && this.planner.isParallel()) {
+            this.planner.plan(this.balls, dt);
+        }
+
+        this.sprites.notifyAllTimePassed(dt);
+        this.hitEvents.drain();
+    }
+
+    /**
+     * Check if the current turn is over, and apply the end of turn rules:
+     * when there are no more balls the player loses a life and gets a new
+     * paddle, and when there are no more blocks the player gets a bonus.
+     *
+     * @return true if the current turn is over.
+     */
+    public boolean endTurnIfOver() {
+        boolean over = false;
+
+        if (this.remainingBalls.getValue() == 0) {
+            this.numberOfLives.decrease(1);
+            this.paddle.removeFromGame(this);
+            createPaddleAndAddToGame();
+            over = true;
+        }
+
+        if (this.remainingBlocks.getValue() == 0) {
+            this.score.increase(100);
+            over = true;
+        }
+
+        return over;
+    }
+}
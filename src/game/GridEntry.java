@@ -0,0 +1,45 @@
+package game;
+
+import collidables.Collidable;
+
+/**
+ * A moving collidable of the environment, together with the order
+ * it was added to the environment in.
+ *
+ * @author Shahaf Mordechay
+ */
+public class GridEntry {
+
+    // members
+    private Collidable collidable;
+    private long order;
+
+    /**
+     * Constructs a new grid entry.
+     *
+     * @param collidable the indexed collidable.
+     * @param order      the order the collidable was added in.
+     */
+    public GridEntry(Collidable collidable, long order) {
+        this.collidable = collidable;
+        this.order = order;
+    }
+
+    /**
+     * Return the indexed collidable.
+     *
+     * @return the indexed collidable.
+     */
+    public Collidable getCollidable() {
+        return this.collidable;
+    }
+
+    /**
+     * Return the order the collidable was added to the environment in.
+     *
+     * @return the collidable order.
+     */
+    public long getOrder() {
+        return this.order;
+    }
+}
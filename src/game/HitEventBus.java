@@ -0,0 +1,106 @@
+package game;
+
+import collidables.Block;
+import sprites.Ball;
+
+/**
+ * A queue of the block hits of a world.
+ * While the world is stepped, a hit only bounces the ball, and the block
+ * and the ball that hit it are appended to a ring buffer, which keeps
+ * its arrays between frames. Once every sprite has moved, the queue is
+ * drained: every hit takes its hit point and notifies the block hit
+ * listeners, in the order the hits happened, so listeners that remove
+ * blocks or balls never change the world while it is being stepped.
+ * A block that is destroyed in a step therefore stays in place, and may
+ * bounce balls, until the step is over.
+ *
+ * @author Shahaf Mordechay
+ */
+public class HitEventBus {
+
+    // starting number of queued hits, a power of 2
+    private static final int INITIAL_CAPACITY = 64;
+
+    // members
+    private Block[] blocks;
+    private Ball[] hitters;
+    private int head;
+    private int count;
+
+    /**
+     * Constructs an empty queue.
+     */
+    public HitEventBus() {
+        this.blocks = new Block[INITIAL_CAPACITY];
+        this.hitters = new Ball[INITIAL_CAPACITY];
+        this.head = 0;
+        this.count = 0;
+    }
+
+    /**
+     * Queue a hit of the given block by the given ball.
+     *
+     * @param beingHit the block that was hit.
+     * @param hitter   the ball that hit the block.
+     */
+    public void publish(Block beingHit, Ball hitter) {
+        if (this.count == this.blocks.length) {
+            this.grow();
+        }
+
+        int tail = (this.head + this.count) & (this.blocks.length - 1);
+        this.blocks[tail] = beingHit;
+        this.hitters[tail] = hitter;
+        this.count++;
+    }
+
+    /**
+     * Return the number of queued hits.
+     *
+     * @return the queued hits count.
+     */
+    public int size() {
+        return this.count;
+    }
+
+    /**
+     * Apply every queued hit, in the order the hits happened, and empty
+     * the queue.
+     * A hit of a block that an earlier hit removed from the game, or by a
+     * ball that an earlier hit removed, only bounced the ball, and is
+     * dropped.
+     */
+    public void drain() {
+        while (this.count > 0) {
+            Block beingHit = this.blocks[this.head];
+            Ball hitter = this.hitters[this.head];
+            this.blocks[this.head] = null;
+            this.hitters[this.head] = null;
+            this.head = (this.head + 1) & (this.blocks.length - 1);
+            this.count--;
+
+            beingHit.applyHit(hitter);
+        }
+
+        this.head = 0;
+    }
+
+    /**
+     * Double the queue capacity, keeping the queued hits in order.
+     */
+    private void grow() {
+        int capacity = this.blocks.length * 2;
+        Block[] grownBlocks = new Block[capacity];
+        Ball[] grownHitters = new Ball[capacity];
+
+        for (int i = 0; i < this.count; i++) {
+            int index = (this.head + i) & (this.blocks.length - 1);
+            grownBlocks[i] = this.blocks[index];
+            grownHitters[i] = this.hitters[index];
+        }
+
+        this.blocks = grownBlocks;
+        this.hitters = grownHitters;
+        this.head = 0;
+    }
+}
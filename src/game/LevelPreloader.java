@@ -0,0 +1,141 @@
+package game;
+
+import levels.LevelInformation;
+import readers.LevelSpecificationReader;
+
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.function.Supplier;
+
+/**
+ * Loads the levels of a game one at a time on a background thread, so
+ * the next level can be loaded while the current one is played.
+ * A level is loaded only when it is preloaded or asked for, and asking
+ * for a level waits only if its loading is not done yet.
+ *
+ * @author Shahaf Mordechay
+ */
+public class LevelPreloader {
+
+    // one background thread for all the preloaders, that does not keep the game running
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "level-preloader");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // members
+    private List<Supplier<LevelInformation>> loaders;
+    private List<CompletableFuture<LevelInformation>> levels;
+
+    /**
+     * Constructs a new preloader of the levels the given loaders load.
+     *
+     * @param loaders a loader of every level, in the levels order.
+     */
+    public LevelPreloader(List<Supplier<LevelInformation>> loaders) {
+        this.loaders = loaders;
+        this.levels = new ArrayList<>();
+        for (int i = 0; i < loaders.size(); i++) {
+            this.levels.add(null);
+        }
+    }
+
+    /**
+     * Return a preloader of the levels in a level definitions reader.
+     * The reader is read right away, but each level is only parsed when
+     * it is preloaded.
+     *
+     * @param reader holds information of level information.
+     * @return a preloader of the reader levels.
+     */
+    public static LevelPreloader fromReader(Reader reader) {
+        List<Supplier<LevelInformation>> loaders = new ArrayList<>();
+        List<Integer> firstLines = new ArrayList<>();
+        List<String> levelTexts = new LevelSpecificationReader().levelTextsFromReader(reader,
+                firstLines);
+
+        for (int i = 0; i < levelTexts.size(); i++) {
+            String levelText = levelTexts.get(i);
+            int firstLine = firstLines.get(i);
+            loaders.add(new Supplier<LevelInformation>() {
+                @Override
+                public LevelInformation get() {
+                    return new LevelSpecificationReader().levelFromText(levelText, firstLine);
+                }
+            });
+        }
+
+        return new LevelPreloader(loaders);
+    }
+
+    /**
+     * Return a preloader of levels that are already loaded.
+     *
+     * @param levelsInformation the levels.
+     * @return a preloader of the levels.
+     */
+    public static LevelPreloader of(List<LevelInformation> levelsInformation) {
+        List<Supplier<LevelInformation>> loaders = new ArrayList<>();
+
+        for (LevelInformation levelInformation : levelsInformation) {
+            loaders.add(new Supplier<LevelInformation>() {
+                @Override
+                public LevelInformation get() {
+                    return levelInformation;
+                }
+            });
+        }
+
+        return new LevelPreloader(loaders);
+    }
+
+    /**
+     * Return the number of levels.
+     *
+     * @return the number of levels.
+     */
+    public int size() {
+        return this.loaders.size();
+    }
+
+    /**
+     * Start loading the level at the given index on the background thread,
+     * unless it is already loading or there is no such level.
+     *
+     * @param index the level index.
+     */
+    public void preload(int index) {
+        if (index < 0 || index >= this.loaders.size() || this.levels.get(index) != null) {
+            return;
+        }
+
+        this.levels.set(index, CompletableFuture.supplyAsync(this.loaders.get(index), EXECUTOR));
+    }
+
+    /**
+     * Return the level at the given index, waiting for it to load if it is
+     * not loaded yet. The preloader does not keep the level afterwards.
+     *
+     * @param index the level index.
+     * @return the level.
+     * @throws java.util.concurrent.CompletionException if loading the level failed.
+     */
+    public LevelInformation get(int index) {
+        this.preload(index);
+        LevelInformation levelInformation = this.levels.get(index).join();
+
+        // a loader may be asked for the level again
+        this.levels.set(index, null);
+        return levelInformation;
+    }
+}
@@ -1,7 +1,5 @@
 package geometry;
 
-import java.util.List;
-
 /**
  * A 2d line section from one point to another.
  *
@@ -40,6 +38,20 @@ public class Line {
         this.end = new Point(x2, y2);
     }
 
+    /**
+     * Move this line section to the specified points, reusing its
+     * points instead of creating new ones.
+     *
+     * @param x1 the X coordinate of the start point.
+     * @param y1 the Y coordinate of the start point.
+     * @param x2 the X coordinate of the end point.
+     * @param y2 the Y coordinate of the end point.
+     */
+    public void setLine(double x1, double y1, double x2, double y2) {
+        this.start.setLocation(x1, y1);
+        this.end.setLocation(x2, y2);
+    }
+
     /**
      * Returns the length of this line section.
      *
@@ -81,25 +93,62 @@ public class Line {
     }
 
     /**
-     * States the direction route of 3 points, from a to b to c.
+     * Returns the parameter along the segment from (x1, y1) to (x2, y2)
+     * where it intersects the segment from (x3, y3) to (x4, y4): 0 at
+     * (x1, y1) and 1 at (x2, y2).
+     * Both segments are written as a start plus a parameter times their
+     * direction, and the parameters are solved with cross products, so
+     * vertical segments need no special case. Parallel segments,
+     * including collinear ones, do not intersect.
      *
-     * @param a the getStart point.
-     * @param b the second point.
-     * @param c the last point.
-     * @return 1 if the route is clockwise, -1 if counterclockwise,
-     *          0 if collinear.
+     * @param x1 the first segment start x coordinate.
+     * @param y1 the first segment start y coordinate.
+     * @param x2 the first segment end x coordinate.
+     * @param y2 the first segment end y coordinate.
+     * @param x3 the second segment start x coordinate.
+     * @param y3 the second segment start y coordinate.
+     * @param x4 the second segment end x coordinate.
+     * @param y4 the second segment end y coordinate.
+     * @return the intersection parameter along the first segment, -1 if
+     *         the segments do not intersect.
      */
-    private int orientation(Point a, Point b, Point c) {
-        double inclDiff = (b.getY() - a.getY()) * (c.getX() - b.getX())
-                - (c.getY() - b.getY()) * (b.getX() - a.getX());
+    public static double intersectionTime(double x1, double y1, double x2, double y2,
+                                          double x3, double y3, double x4, double y4) {
+        double rx = x2 - x1;
+        double ry = y2 - y1;
+        double sx = x4 - x3;
+        double sy = y4 - y3;
+
+        double denominator = rx * sy - ry * sx;
+        if (denominator == 0) {
+            return -1;
+        }
+
+        // from the first segment start to the second segment start
+        double qx = x3 - x1;
+        double qy = y3 - y1;
 
-        if (inclDiff > 0) {
-            return 1;
-        } else if (inclDiff < 0) {
+        double t = (qx * sy - qy * sx) / denominator;
+        double u = (qx * ry - qy * rx) / denominator;
+        if (t < 0 || t > 1 || u < 0 || u > 1) {
             return -1;
-        } else {
-            return 0;
         }
+
+        return t;
+    }
+
+    /**
+     * Returns the parameter along this line section where it intersects
+     * the other line section: 0 at this start and 1 at this end.
+     *
+     * @param other the other line section.
+     * @return the intersection parameter, -1 if the lines do not intersect.
+     */
+    public double intersectionTime(Line other) {
+        return intersectionTime(this.start.getX(), this.start.getY(),
+                this.end.getX(), this.end.getY(),
+                other.start.getX(), other.start.getY(),
+                other.end.getX(), other.end.getY());
     }
 
     /**
@@ -109,20 +158,7 @@ public class Line {
      * @return true if line sections are intersecting, false otherwise.
      */
     public boolean isIntersecting(Line other) {
-        double thisIncline = (this.start.getY() - this.end.getY()) / (this.start.getX() - this.end.getX());
-
-        double otherIncline = (other.start.getY() - other.end.getY()) / (other.start.getX() - other.end.getX());
-
-        if (thisIncline == otherIncline) {
-            return false;
-        }
-
-        int or11 = orientation(this.start, this.end, other.start);
-        int or12 = orientation(this.start, this.end, other.end);
-        int or21 = orientation(other.start, other.end, this.start);
-        int or22 = orientation(other.start, other.end, this.end);
-
-        return (or11 != or12) && (or21 != or22);
+        return this.intersectionTime(other) >= 0;
     }
 
     /**
@@ -157,48 +193,13 @@ public class Line {
      * @return intersection point if lines intersect, null otherwise.
      */
     public Point intersectionWith(Line other) {
-        if (!isIntersecting(other)) {
-            return null;
-        }
-
-        // this geometry.Line incline
-        double thisIncline = (this.start.getY() - this.end.getY()) / (this.start.getX() - this.end.getX());
-
-        // other line incline
-        double otherIncline = (other.start.getY() - other.end.getY()) / (other.start.getX() - other.end.getX());
-
-        // the constant number of the this geometry.Line equation
-        double thisConst = (-(thisIncline * this.start.getX())) + this.start.getY();
-
-        // the constant number of other geometry.Line equation
-        double otherConst = (-(otherIncline * other.start.getX())) + other.start.getY();
-
-        // x coordinate of intersection geometry.Point
-        double interX = (otherConst - thisConst) / (thisIncline - otherIncline);
-
-        // y coordinate of intersection geometry.Point
-        double interY = (thisIncline * interX) + thisConst;
-
-        // if this incline is infinite
-        if (this.start.getX() == this.end.getX()) {
-            interX = this.start.getX();
-            interY = (otherIncline * interX) + otherConst;
-
-        // if other incline is infinite
-        } else if (other.start.getX() == other.end.getX()) {
-            interX = other.start.getX();
-            interY = (thisIncline * interX) + thisConst;
-        }
-
-        /* checks if interX, interY are in range of intersected
-         * lines x,y */
-        if (!this.isPointInRange(interX, interY)
-                || !other.isPointInRange(interX, interY)) {
+        double t = this.intersectionTime(other);
+        if (t < 0) {
             return null;
         }
 
-        //intersection geometry.Point
-        return new Point(interX, interY);
+        return new Point(this.start.getX() + t * (this.end.getX() - this.start.getX()),
+                this.start.getY() + t * (this.end.getY() - this.start.getY()));
     }
 
     /**
@@ -221,26 +222,40 @@ public class Line {
      * @return the closest intersection point to line getStart point.
      */
     public Point closestIntersectionToStartOfLine(Rectangle rect) {
-
-        // intersection points of line with given rectangle
-        List<Point> interPoints = rect.intersectionPoints(this);
+        double minX = rect.getUpperLeft().getX();
+        double minY = rect.getUpperLeft().getY();
+        double maxX = Math.round(minX + rect.getWidth());
+        double maxY = Math.round(minY + rect.getHeight());
+
+        double x1 = this.start.getX();
+        double y1 = this.start.getY();
+        double x2 = this.end.getX();
+        double y2 = this.end.getY();
+
+        /* the closest intersection is the one with the smallest
+         * parameter along this line, no distances are needed */
+        double closest = Double.POSITIVE_INFINITY;
+        closest = closer(closest, intersectionTime(x1, y1, x2, y2, minX, minY, maxX, minY));
+        closest = closer(closest, intersectionTime(x1, y1, x2, y2, maxX, minY, maxX, maxY));
+        closest = closer(closest, intersectionTime(x1, y1, x2, y2, maxX, maxY, minX, maxY));
+        closest = closer(closest, intersectionTime(x1, y1, x2, y2, minX, maxY, minX, minY));
 
         // no intersections
-        if (interPoints.isEmpty()) {
+        if (closest == Double.POSITIVE_INFINITY) {
             return null;
         }
 
-        // the closest point to start of line
-        Point closest = interPoints.get(0);
-
-        /* compare points distances to start of line and puts the
-         * closes one to be closest value */
-        for (int i = 1; i < interPoints.size(); i++) {
-            if (this.start.distance(closest) > this.start.distance(interPoints.get(i))) {
-                closest = interPoints.get(i);
-            }
-        }
+        return new Point(x1 + closest * (x2 - x1), y1 + closest * (y2 - y1));
+    }
 
-        return closest;
+    /**
+     * Return the closer of two intersection parameters.
+     *
+     * @param closest the closest parameter so far.
+     * @param t       an intersection parameter, -1 for no intersection.
+     * @return t if it is an intersection closer than closest, closest otherwise.
+     */
+    private static double closer(double closest, double t) {
+        return t >= 0 && t < closest ? t : closest;
     }
 }
@@ -29,6 +29,18 @@ public class Point {
         this.y = Math.round(y);
     }
 
+    /**
+     * Move this point to the specified (x,y) location, rounded like a
+     * new point, without creating a new point.
+     *
+     * @param newX the new X coordinate of this point.
+     * @param newY the new Y coordinate of this point.
+     */
+    public void setLocation(double newX, double newY) {
+        this.x = Math.round(newX);
+        this.y = Math.round(newY);
+    }
+
     /**
      * Calculates the distance of this point from another point.
      *
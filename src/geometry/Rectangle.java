@@ -97,17 +97,18 @@ public class Rectangle {
      * @return this rectangle lower-right point.
      */
     public Point getLowerRight() {
-        return new Point(this.getUpperRight().getX(),
-                        this.getLowerLeft().getY());
+        return new Point(this.upperLeft.getX() + width,
+                        this.upperLeft.getY() + height);
     }
 
     /**
-     * set the upper left point of this rectangle.
+     * set the upper left point of this rectangle, moving the point in
+     * place, so everyone holding it sees the new location.
      * @param x this upper left point x coordinate.
      * @param y this upper left point y coordinate.
      */
     public void setUpperLeft(double x, double y) {
-        this.upperLeft = new Point(x, y);
+        this.upperLeft.setLocation(x, y);
     }
 
     /**
@@ -121,26 +122,236 @@ public class Rectangle {
 
         ArrayList<Point> interList = new ArrayList<>();
 
-        // rectangle corners points array
-        Point[] pointArray = {upperLeft, this.getUpperRight(),
-                this.getLowerRight(), this.getLowerLeft()};
+        // rectangle corners, clockwise from the upper left
+        double minX = this.upperLeft.getX();
+        double minY = this.upperLeft.getY();
+        double maxX = Math.round(minX + this.width);
+        double maxY = Math.round(minY + this.height);
 
         // check for intersection of line with rectangle edges
-        for (int i = 0; i < pointArray.length; i++) {
+        addIntersection(interList, minX, minY, maxX, minY, line);
+        addIntersection(interList, maxX, minY, maxX, maxY, line);
+        addIntersection(interList, maxX, maxY, minX, maxY, line);
+        addIntersection(interList, minX, maxY, minX, minY, line);
+
+        return interList;
+    }
+
+    /**
+     * Add the intersection point of the edge from (x1, y1) to (x2, y2)
+     * with the given line to the given list, if they intersect.
+     *
+     * @param interList the list to add the point to.
+     * @param x1        the edge start x coordinate.
+     * @param y1        the edge start y coordinate.
+     * @param x2        the edge end x coordinate.
+     * @param y2        the edge end y coordinate.
+     * @param line      the line to intersect with.
+     */
+    private static void addIntersection(List<Point> interList, double x1, double y1,
+                                        double x2, double y2, Line line) {
+        double t = Line.intersectionTime(x1, y1, x2, y2,
+                line.getStart().getX(), line.getStart().getY(),
+                line.getEnd().getX(), line.getEnd().getY());
+
+        if (t >= 0) {
+            interList.add(new Point(x1 + t * (x2 - x1), y1 + t * (y2 - y1)));
+        }
+    }
+
+    /**
+     * Returns the time the segment from (x0, y0) moving by (dx, dy)
+     * first crosses this rectangle border, as a fraction of the segment
+     * (0 is the start and 1 is the end).
+     * If the segment starts inside the rectangle, the time it leaves
+     * the rectangle is returned.
+     *
+     * @param x0 the segment start x coordinate.
+     * @param y0 the segment start y coordinate.
+     * @param dx the segment change in x.
+     * @param dy the segment change in y.
+     * @return the crossing time, or -1 if the segment does not cross the border.
+     */
+    public double crossingTime(double x0, double y0, double dx, double dy) {
+        double minX = this.upperLeft.getX();
+        double minY = this.upperLeft.getY();
 
-            int next = (i + 1) % (pointArray.length); // next in array
+        return crossingTime(minX, minY, minX + this.width, minY + this.height, x0, y0, dx, dy);
+    }
 
-            // rectangle edge as 2 points from pointArray
-            Line recLine = new Line(pointArray[i], pointArray[next]);
+    /**
+     * Returns the time the segment from (x0, y0) moving by (dx, dy)
+     * first crosses the border of the rectangle with the given bounds,
+     * like crossingTime of a rectangle object.
+     *
+     * @param minX the rectangle left x coordinate.
+     * @param minY the rectangle top y coordinate.
+     * @param maxX the rectangle right x coordinate.
+     * @param maxY the rectangle bottom y coordinate.
+     * @param x0   the segment start x coordinate.
+     * @param y0   the segment start y coordinate.
+     * @param dx   the segment change in x.
+     * @param dy   the segment change in y.
+     * @return the crossing time, or -1 if the segment does not cross the border.
+     */
+    public static double crossingTime(double minX, double minY, double maxX, double maxY,
+                                      double x0, double y0, double dx, double dy) {
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
 
-            // intersection point of this rectangle with line
-            Point interPoints = recLine.intersectionWith(line);
+        // x slab
+        if (dx == 0) {
+            if (x0 < minX || x0 > maxX) {
+                return -1;
+            }
+        } else {
+            double t1 = (minX - x0) / dx;
+            double t2 = (maxX - x0) / dx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
 
-            if (interPoints != null) {
-                interList.add(interPoints);
+        // y slab
+        if (dy == 0) {
+            if (y0 < minY || y0 > maxY) {
+                return -1;
             }
+        } else {
+            double t1 = (minY - y0) / dy;
+            double t2 = (maxY - y0) / dy;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
         }
 
-        return interList;
+        if (enter > exit || exit < 0 || enter > 1) {
+            return -1;
+        }
+
+        if (enter >= 0) {
+            return enter;
+        }
+
+        // starts inside, leaves through the border
+        if (exit > 0 && exit <= 1) {
+            return exit;
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the time a circle with the given radius, whose center moves
+     * from (x0, y0) by (dx, dy), first touches this rectangle, as a fraction
+     * of the movement (0 is the start and 1 is the end).
+     * The circle center is swept against this rectangle expanded by the
+     * radius, with rounded corners.
+     * A circle that already overlaps the rectangle touches it at time 0
+     * if it moves deeper into it, and does not touch it otherwise.
+     *
+     * @param x0     the circle center start x coordinate.
+     * @param y0     the circle center start y coordinate.
+     * @param dx     the circle center change in x.
+     * @param dy     the circle center change in y.
+     * @param radius the circle radius.
+     * @return the touching time, or -1 if the circle does not touch this rectangle.
+     */
+    public double sweptCircleTime(double x0, double y0, double dx, double dy, double radius) {
+        double minX = this.upperLeft.getX();
+        double minY = this.upperLeft.getY();
+
+        return sweptCircleTime(minX, minY, minX + this.width, minY + this.height,
+                x0, y0, dx, dy, radius);
+    }
+
+    /**
+     * Returns the time a circle with the given radius, whose center moves
+     * from (x0, y0) by (dx, dy), first touches the rectangle with the given
+     * bounds, like sweptCircleTime of a rectangle object.
+     *
+     * @param minX   the rectangle left x coordinate.
+     * @param minY   the rectangle top y coordinate.
+     * @param maxX   the rectangle right x coordinate.
+     * @param maxY   the rectangle bottom y coordinate.
+     * @param x0     the circle center start x coordinate.
+     * @param y0     the circle center start y coordinate.
+     * @param dx     the circle center change in x.
+     * @param dy     the circle center change in y.
+     * @param radius the circle radius.
+     * @return the touching time, or -1 if the circle does not touch the rectangle.
+     */
+    public static double sweptCircleTime(double minX, double minY, double maxX, double maxY,
+                                         double x0, double y0, double dx, double dy,
+                                         double radius) {
+        // already overlapping
+        double nearX = Math.max(minX, Math.min(x0, maxX));
+        double nearY = Math.max(minY, Math.min(y0, maxY));
+        double awayX = x0 - nearX;
+        double awayY = y0 - nearY;
+        if (awayX * awayX + awayY * awayY < radius * radius) {
+            if ((awayX != 0 || awayY != 0) && dx * awayX + dy * awayY < 0) {
+                return 0;
+            }
+            return -1;
+        }
+
+        // slabs of the rectangle expanded by the radius
+        double enter = Double.NEGATIVE_INFINITY;
+        double exit = Double.POSITIVE_INFINITY;
+
+        if (dx == 0) {
+            if (x0 < minX - radius || x0 > maxX + radius) {
+                return -1;
+            }
+        } else {
+            double t1 = (minX - radius - x0) / dx;
+            double t2 = (maxX + radius - x0) / dx;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        if (dy == 0) {
+            if (y0 < minY - radius || y0 > maxY + radius) {
+                return -1;
+            }
+        } else {
+            double t1 = (minY - radius - y0) / dy;
+            double t2 = (maxY + radius - y0) / dy;
+            enter = Math.max(enter, Math.min(t1, t2));
+            exit = Math.min(exit, Math.max(t1, t2));
+        }
+
+        if (enter > exit || exit <= 0 || enter > 1) {
+            return -1;
+        }
+
+        // the center enters the expanded rectangle next to a side
+        double t = Math.max(enter, 0);
+        double hitX = x0 + t * dx;
+        double hitY = y0 + t * dy;
+        boolean outsideX = hitX < minX || hitX > maxX;
+        boolean outsideY = hitY < minY || hitY > maxY;
+        if (!(outsideX && outsideY)) {
+            return enter >= 0 ? enter : -1;
+        }
+
+        // the center enters next to a corner, check the corner circle
+        double cornerX = hitX < minX ? minX : maxX;
+        double cornerY = hitY < minY ? minY : maxY;
+        double fromX = x0 - cornerX;
+        double fromY = y0 - cornerY;
+        double a = dx * dx + dy * dy;
+        double b = 2 * (dx * fromX + dy * fromY);
+        double c = fromX * fromX + fromY * fromY - radius * radius;
+        double discriminant = b * b - 4 * a * c;
+        if (a == 0 || discriminant < 0) {
+            return -1;
+        }
+
+        double cornerT = (-b - Math.sqrt(discriminant)) / (2 * a);
+        if (cornerT < 0 || cornerT > 1) {
+            return -1;
+        }
+
+        return cornerT;
     }
 }
@@ -1,6 +1,6 @@
 package hitlisteners;
 
-import game.GameLevel;
+import game.GameWorld;
 import other.Counter;
 import sprites.Ball;
 import collidables.Block;
@@ -14,18 +14,18 @@ import collidables.Block;
 public class BallRemover implements HitListener {
 
     // members
-    private GameLevel gameLevel;
+    private GameWorld gameWorld;
     private Counter remainingBalls;
 
     /**
      * Constructs and initializes a ball remover with a specified
      * game to track on.
      *
-     * @param gameLevel           the current played game.
+     * @param gameWorld           the current played game.
      * @param remainingBalls the number of remaining balls in the game.
      */
-    public BallRemover(GameLevel gameLevel, Counter remainingBalls) {
-        this.gameLevel = gameLevel;
+    public BallRemover(GameWorld gameWorld, Counter remainingBalls) {
+        this.gameWorld = gameWorld;
         this.remainingBalls = remainingBalls;
     }
 
@@ -36,7 +36,7 @@ public class BallRemover implements HitListener {
      * @param hitter   the object that hit the beingHit object.
      */
     public void hitEvent(Block beingHit, Ball hitter) {
-        hitter.removeFromGame(this.gameLevel);
+        hitter.removeFromGame(this.gameWorld);
         remainingBalls.decrease(1);
     }
 }
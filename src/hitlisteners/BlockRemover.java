@@ -1,6 +1,6 @@
 package hitlisteners;
 
-import game.GameLevel;
+import game.GameWorld;
 import other.Counter;
 import sprites.Ball;
 import collidables.Block;
@@ -14,18 +14,18 @@ import collidables.Block;
 public class BlockRemover implements HitListener {
 
     // members
-    private GameLevel gameLevel;
+    private GameWorld gameWorld;
     private Counter remainingBlocks;
 
     /**
      * Constructs and initializes a block remover with a specified
      * game to track on.
      *
-     * @param gameLevel            the current played game.
+     * @param gameWorld            the current played game.
      * @param remainingBlocks the number of remaining blocks in the game.
      */
-    public BlockRemover(GameLevel gameLevel, Counter remainingBlocks) {
-        this.gameLevel = gameLevel;
+    public BlockRemover(GameWorld gameWorld, Counter remainingBlocks) {
+        this.gameWorld = gameWorld;
         this.remainingBlocks = remainingBlocks;
     }
 
@@ -38,7 +38,7 @@ public class BlockRemover implements HitListener {
      */
     public void hitEvent(Block beingHit, Ball hitter) {
         if (beingHit.getHitPoints() == 0) {
-            beingHit.removeFromGame(this.gameLevel);
+            beingHit.removeFromGame(this.gameWorld);
             this.remainingBlocks.decrease(1);
             beingHit.removeHitListener(this);
         }
@@ -0,0 +1,89 @@
+package input;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The format of a recorded input log, and the variable length numbers it
+ * is written with.
+ *
+ * A log is a header followed by records, each a type byte and its fields
+ * (numbers as unsigned variable length integers, strings as modified UTF-8):
+ * <pre>
+ * int magic, short version
+ * KEY      string key           - defines the next key index
+ * LEVEL    string definitions file, number level index, string name,
+ *          double dt    - the file is empty for levels not read from one
+ * TURN                          - balls were created, steps count from 0
+ * STATE    number step delta, number keys mask
+ * TURN_END number steps
+ * MENU_KEY number key index     - a key pressed outside of a turn
+ * </pre>
+ * A STATE record is written only when the pressed keys of a step differ
+ * from the previous step, its step delta counts from the previous STATE
+ * record of the turn or from the turn start.
+ *
+ * @author Shahaf Mordechay
+ */
+public final class InputLog {
+
+    // file format
+    public static final int MAGIC = 0x424B524C;
+    public static final short VERSION = 2;
+
+    // record types
+    public static final byte KEY = 0;
+    public static final byte LEVEL = 1;
+    public static final byte TURN = 2;
+    public static final byte STATE = 3;
+    public static final byte TURN_END = 4;
+    public static final byte MENU_KEY = 5;
+
+    // the most keys a keys mask holds
+    public static final int MAX_KEYS = 64;
+
+    /**
+     * Not constructed, holds the log format only.
+     */
+    private InputLog() {
+    }
+
+    /**
+     * Write a non negative number in as few bytes as it needs, seven bits
+     * a byte with the high bit telling that more bytes follow.
+     *
+     * @param out   the output to write to.
+     * @param value the number to write.
+     * @throws IOException if writing fails.
+     */
+    public static void writeNumber(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+
+        out.writeByte((int) value);
+    }
+
+    /**
+     * Read a number written by writeNumber.
+     *
+     * @param in the input to read from.
+     * @return the number read.
+     * @throws IOException if reading fails or the number is too long.
+     */
+    public static long readNumber(DataInput in) throws IOException {
+        long value = 0;
+
+        for (int shift = 0; shift < Long.SIZE; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed number in input log");
+    }
+}
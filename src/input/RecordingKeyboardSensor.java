@@ -0,0 +1,248 @@
+package input;
+
+import biuoop.KeyboardSensor;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A keyboard sensor that passes the keys of another sensor on and writes
+ * them to an input log, so the game can be replayed without a screen.
+ *
+ * During a turn every key is read once per step and keeps that state for
+ * the rest of the step, so the log holds exactly what the game saw; only
+ * the steps where the pressed keys change are written. Outside of turns,
+ * such as in the menus, the keys are passed on as they are and only the
+ * presses are written.
+ *
+ * @author Shahaf Mordechay
+ */
+public class RecordingKeyboardSensor implements KeyboardSensor {
+
+    // system property of a file to record the game input to
+    public static final String RECORD_PROPERTY = "breakout.record";
+
+    // members
+    private KeyboardSensor sensor;
+    private DataOutputStream out;
+    private Map<String, Integer> keys;
+    private boolean inTurn;
+    private int step;
+    private int lastStateStep;
+    private long previousState;
+    private long sampled;
+    private long state;
+    private long menuPressed;
+
+    /**
+     * Constructs a sensor that records the keys of the given sensor to
+     * the given file.
+     *
+     * @param sensor the sensor to record.
+     * @param file   the input log file to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public RecordingKeyboardSensor(KeyboardSensor sensor, File file) throws IOException {
+        this.sensor = sensor;
+        this.keys = new HashMap<>();
+        this.inTurn = false;
+        this.out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)));
+        this.out.writeInt(InputLog.MAGIC);
+        this.out.writeShort(InputLog.VERSION);
+    }
+
+    /**
+     * Tell if the given key is pressed, by the state it has in the
+     * current step during a turn.
+     *
+     * @param key the key to check.
+     * @return true if the key is pressed.
+     */
+    public boolean isPressed(String key) {
+        int index = this.keyIndex(key);
+        if (index == -1) {
+            return this.sensor.isPressed(key);
+        }
+
+        long bit = 1L << index;
+        if (this.inTurn) {
+            if ((this.sampled & bit) == 0) {
+                this.sampled |= bit;
+                if (this.sensor.isPressed(key)) {
+                    this.state |= bit;
+                }
+            }
+
+            return (this.state & bit) != 0;
+        }
+
+        boolean pressed = this.sensor.isPressed(key);
+        if (!pressed) {
+            this.menuPressed &= ~bit;
+        } else if ((this.menuPressed & bit) == 0) {
+            this.menuPressed |= bit;
+            try {
+                this.out.writeByte(InputLog.MENU_KEY);
+                InputLog.writeNumber(this.out, index);
+            } catch (IOException e) {
+                this.fail(e);
+            }
+        }
+
+        return pressed;
+    }
+
+    /**
+     * Record the start of a level, and where it was read from, so the
+     * replay reads the same level even if other files have levels of the
+     * same name.
+     *
+     * @param definitions the level definitions file the level was read
+     *                    from, null if it was not read from a file.
+     * @param index       the index of the level in the file.
+     * @param levelName   the level name.
+     * @param dt          the amount of seconds each step of the level takes.
+     */
+    public void levelStarted(String definitions, int index, String levelName, double dt) {
+        if (this.out == null) {
+            return;
+        }
+
+        try {
+            this.out.writeByte(InputLog.LEVEL);
+            this.out.writeUTF(definitions == null ? "" : definitions);
+            InputLog.writeNumber(this.out, index);
+            this.out.writeUTF(levelName);
+            this.out.writeDouble(dt);
+        } catch (IOException e) {
+            this.fail(e);
+        }
+    }
+
+    /**
+     * Record the start of a turn, after its balls were created.
+     */
+    public void turnStarted() {
+        this.inTurn = true;
+        this.step = 0;
+        this.lastStateStep = 0;
+        this.previousState = 0;
+        this.sampled = 0;
+        this.state = 0;
+
+        if (this.out == null) {
+            return;
+        }
+
+        try {
+            this.out.writeByte(InputLog.TURN);
+        } catch (IOException e) {
+            this.fail(e);
+        }
+    }
+
+    /**
+     * Record the keys read in the step that just ended, if they are not
+     * the same as in the step before, and start the next step.
+     */
+    public void stepEnded() {
+        if (this.state != this.previousState && this.out != null) {
+            try {
+                this.out.writeByte(InputLog.STATE);
+                InputLog.writeNumber(this.out, this.step - this.lastStateStep);
+                InputLog.writeNumber(this.out, this.state);
+            } catch (IOException e) {
+                this.fail(e);
+            }
+
+            this.lastStateStep = this.step;
+            this.previousState = this.state;
+        }
+
+        this.step++;
+        this.sampled = 0;
+        this.state = 0;
+    }
+
+    /**
+     * Record the end of a turn and write out what was recorded so far.
+     */
+    public void turnEnded() {
+        this.inTurn = false;
+
+        if (this.out == null) {
+            return;
+        }
+
+        try {
+            this.out.writeByte(InputLog.TURN_END);
+            InputLog.writeNumber(this.out, this.step);
+            this.out.flush();
+        } catch (IOException e) {
+            this.fail(e);
+        }
+    }
+
+    /**
+     * Write out what was recorded and close the log.
+     */
+    public void close() {
+        if (this.out == null) {
+            return;
+        }
+
+        try {
+            this.out.close();
+        } catch (IOException e) {
+            System.err.println("Failed closing input log");
+            e.printStackTrace(System.err);
+        }
+
+        this.out = null;
+    }
+
+    /**
+     * Return the index of the given key in the log, defining it in the
+     * log the first time it is seen.
+     *
+     * @param key the key.
+     * @return the key index, -1 if the key is not recorded.
+     */
+    private int keyIndex(String key) {
+        Integer index = this.keys.get(key);
+        if (index != null) {
+            return index;
+        }
+
+        if (this.out == null || this.keys.size() == InputLog.MAX_KEYS) {
+            return -1;
+        }
+
+        try {
+            this.out.writeByte(InputLog.KEY);
+            this.out.writeUTF(key);
+        } catch (IOException e) {
+            this.fail(e);
+            return -1;
+        }
+
+        this.keys.put(key, this.keys.size());
+        return this.keys.size() - 1;
+    }
+
+    /**
+     * Stop recording after the log could not be written.
+     *
+     * @param e the writing failure.
+     */
+    private void fail(IOException e) {
+        System.err.println("Failed writing input log, recording stopped");
+        e.printStackTrace(System.err);
+        this.close();
+    }
+}
@@ -0,0 +1,72 @@
+package input;
+
+import biuoop.KeyboardSensor;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A keyboard sensor whose keys are set from a recorded input log instead
+ * of a keyboard.
+ *
+ * @author Shahaf Mordechay
+ */
+public class ReplayKeyboardSensor implements KeyboardSensor {
+
+    // members
+    private Map<String, Integer> keys;
+    private long state;
+
+    /**
+     * Constructs a sensor with no keys pressed.
+     */
+    public ReplayKeyboardSensor() {
+        this.keys = new HashMap<>();
+        this.state = 0;
+    }
+
+    /**
+     * Define the next key index of the log.
+     *
+     * @param key the key.
+     */
+    public void defineKey(String key) {
+        this.keys.put(key, this.keys.size());
+    }
+
+    /**
+     * Return the key with the given index in the log.
+     *
+     * @param index the key index.
+     * @return the key, null if there is no such key.
+     */
+    public String getKey(int index) {
+        for (Map.Entry<String, Integer> key : this.keys.entrySet()) {
+            if (key.getValue() == index) {
+                return key.getKey();
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Set the pressed keys.
+     *
+     * @param keysState a mask with the bit of every pressed key index set.
+     */
+    public void setState(long keysState) {
+        this.state = keysState;
+    }
+
+    /**
+     * Tell if the given key is pressed in the current state.
+     *
+     * @param key the key to check.
+     * @return true if the key is pressed.
+     */
+    public boolean isPressed(String key) {
+        Integer index = this.keys.get(key);
+        return index != null && (this.state & (1L << index)) != 0;
+    }
+}
@@ -4,11 +4,13 @@ import animations.AnimationRunner;
 import animations.HighScoresAnimation;
 import animations.KeyPressStoppableAnimation;
 import biuoop.KeyboardSensor;
+import input.RecordingKeyboardSensor;
 import menu.LevelSets;
 import menu.LevelSet;
 import menu.MenuAnimation;
 import menu.Task;
 import menu.GameFlowTask;
+import readers.CompiledLevelSets;
 import score.HighScoresTable;
 
 import java.io.File;
@@ -24,6 +26,9 @@ import java.io.IOException;
  */
 public class Ass6Game {
 
+    // level sets compiled by readers.LevelSetCompiler
+    private static final String COMPILED_LEVEL_SETS = "level_sets.bin";
+
     /**
      * Generates a new game.
      *
@@ -32,11 +37,29 @@ public class Ass6Game {
     public static void main(String[] args) {
 
         AnimationRunner runner = new AnimationRunner();
-        KeyboardSensor kb = runner.getKeyboard();
+
+        // record the game input if a record file was set
+        RecordingKeyboardSensor recorder = null;
+        String recordFile = System.getProperty(RecordingKeyboardSensor.RECORD_PROPERTY);
+        if (recordFile != null) {
+            try {
+                recorder = new RecordingKeyboardSensor(runner.getKeyboard(), new File(recordFile));
+            } catch (IOException e) {
+                System.err.println("Failed creating input log: " + recordFile);
+                e.printStackTrace(System.err);
+            }
+        }
+
+        KeyboardSensor kb = recorder != null ? recorder : runner.getKeyboard();
+        final RecordingKeyboardSensor gameRecorder = recorder;
 
         Task<Void> exit = new Task<Void>() {
             @Override
             public Void run() {
+                if (gameRecorder != null) {
+                    gameRecorder.close();
+                }
+
                 runner.closeGUI();
                 System.exit(1);
                 return null;
@@ -49,15 +72,10 @@ public class Ass6Game {
 
                 File highScores = new File("highscores");
                 HighScoresTable table = new HighScoresTable(10);
-                try {
-                    if (!highScores.exists()) {
-                        table.save(highScores);
-                    } else {
-                        table = HighScoresTable.loadFromFile(highScores);
-                    }
-                } catch (IOException e) {
-                    System.err.println("Failed saving object");
-                    e.printStackTrace(System.err);
+                if (!highScores.exists()) {
+                    table.save(highScores);
+                } else {
+                    table = HighScoresTable.loadFromFile(highScores);
                 }
 
                 HighScoresAnimation scoresAnimation = new
@@ -75,6 +93,23 @@ public class Ass6Game {
 
         MenuAnimation<Task<Void>> subMenu = new MenuAnimation<>("SubMenu", kb);
 
+        // levels compiled by readers.LevelSetCompiler, when there are any and
+        // the level files did not change since they were compiled
+        CompiledLevelSets compiledLevels = null;
+        File compiledFile = new File(COMPILED_LEVEL_SETS);
+        if (compiledFile.exists()) {
+            try {
+                compiledLevels = CompiledLevelSets.load(compiledFile);
+                if (!compiledLevels.isUpToDate()) {
+                    System.err.println("Compiled level sets are out of date, reading level files");
+                    compiledLevels = null;
+                }
+            } catch (IOException e) {
+                System.err.println("Failed loading compiled level sets");
+                e.printStackTrace(System.err);
+            }
+        }
+
         String levelSetsFile = "level_sets.txt";
         InputStream is = null;
         Reader reader = null;
@@ -84,7 +119,12 @@ public class Ass6Game {
 
 
             for (LevelSet levelSet : LevelSets.levelSetsFromReader(reader)) {
-                GameFlowTask<Void> gameFlowTask = new GameFlowTask<Void>(levelSet.getFilename(), runner, kb);
+                GameFlowTask<Void> gameFlowTask;
+                if (compiledLevels != null && compiledLevels.hasLevelSet(levelSet.getKey())) {
+                    gameFlowTask = new GameFlowTask<Void>(compiledLevels, levelSet, runner, kb);
+                } else {
+                    gameFlowTask = new GameFlowTask<Void>(levelSet.getFilename(), runner, kb);
+                }
                 subMenu.addSelection(levelSet.getKey(), levelSet.getMessage(), gameFlowTask);
             }
         } finally {
@@ -3,7 +3,8 @@ package menu;
 import animations.AnimationRunner;
 import biuoop.KeyboardSensor;
 import game.GameFlow;
-import readers.LevelSpecificationReader;
+import game.LevelPreloader;
+import readers.CompiledLevelSets;
 
 import java.io.InputStream;
 import java.io.Reader;
@@ -19,6 +20,8 @@ public class GameFlowTask<T> implements Task<T> {
 
     // members
     private String file;
+    private String key;
+    private CompiledLevelSets compiledLevels;
     private AnimationRunner runner;
     private KeyboardSensor keyboard;
 
@@ -31,26 +34,53 @@ public class GameFlowTask<T> implements Task<T> {
      */
     public GameFlowTask(String file, AnimationRunner runner, KeyboardSensor kb) {
         this.file = file;
+        this.key = null;
+        this.compiledLevels = null;
         this.runner = runner;
         this.keyboard = kb;
     }
 
     /**
-     * Run level by given file.
+     * Constructs a game flow task of a compiled level set.
+     *
+     * @param compiledLevels the compiled level sets.
+     * @param levelSet       the level set to run.
+     * @param runner         animation runner.
+     * @param kb             player keyboard.
+     */
+    public GameFlowTask(CompiledLevelSets compiledLevels, LevelSet levelSet,
+                        AnimationRunner runner, KeyboardSensor kb) {
+        this.file = levelSet.getFilename();
+        this.key = levelSet.getKey();
+        this.compiledLevels = compiledLevels;
+        this.runner = runner;
+        this.keyboard = kb;
+    }
+
+    /**
+     * Run level by given file, or by the compiled level set.
+     * Levels are parsed, or read from the compiled level set, one at a
+     * time in the background.
      *
      * @return void.
      */
     @Override
     public Void run() {
         GameFlow gameFlow = new GameFlow(this.runner, this.keyboard);
+
+        if (this.compiledLevels != null) {
+            gameFlow.runLevels(new LevelPreloader(this.compiledLevels.levelLoaders(this.key)),
+                    this.file);
+            return null;
+        }
+
         InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(this.file);
         Reader reader = null;
 
         try {
             reader = new InputStreamReader(is);
 
-            LevelSpecificationReader levels = new LevelSpecificationReader();
-            gameFlow.runLevels(levels.fromReader(reader));
+            gameFlow.runLevels(LevelPreloader.fromReader(reader), this.file);
         } finally {
             try {
                 if (is != null) {
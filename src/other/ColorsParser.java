@@ -1,10 +1,7 @@
 package other;
 
-import javax.imageio.ImageIO;
 import java.awt.Color;
 import java.awt.Image;
-import java.io.InputStream;
-import java.io.IOException;
 import java.lang.reflect.Field;
 
 /**
@@ -14,6 +11,12 @@ import java.lang.reflect.Field;
  */
 public class ColorsParser {
 
+    // images cache size
+    private static final long MAX_IMAGE_BYTES = 64L * 1024 * 1024;
+
+    // images of all the parsed fills
+    private static final ImageCache IMAGES = new ImageCache(MAX_IMAGE_BYTES);
+
     /**
      * Parse color definition and return the specified color.
      *
@@ -45,31 +48,39 @@ public class ColorsParser {
         return null;
     }
 
+    /**
+     * Return a fill from a color or an image definition, such as
+     * color(red), color(RGB(0,0,0)) or image(block_images/a.png).
+     * An image fill remembers the file it was read from. White space
+     * around the definition, such as the space after the colon of
+     * "fill: image(...)", is ignored.
+     *
+     * @param s the fill definition.
+     * @return the matching fill, null if it is not a color or an image.
+     */
+    public static Fill fillFromString(String s) {
+        String definition = s.trim();
+        if (definition.startsWith("image")) {
+            String fileName = definition.split("\\(")[1].split("\\)")[0];
+            return new Fill(imageFromString(definition), fileName);
+        } else if (definition.contains("color")) {
+            return new Fill(colorFromString(definition));
+        }
+
+        return null;
+    }
+
     /**
      * Parse image definition and return the specified image.
+     * Images are read once and shared through the images cache.
      *
      * @param s image represented by string.
-     * @return a new image.
+     * @return the image, shared with every other fill of the same file.
      */
     public static Image imageFromString(String s) {
         if (s.contains("image")) {
             String fileName = s.split("\\(")[1].split("\\)")[0];
-
-            InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(fileName);
-            try {
-                return ImageIO.read(is);
-            } catch (IOException e) {
-                System.err.println("Failed reading image");
-                e.printStackTrace(System.err);
-            } finally {
-                try {
-                    if (is != null) {
-                        is.close();
-                    }
-                } catch (IOException e) {
-                    System.err.println("Failed closing file");
-                }
-            }
+            return IMAGES.get(fileName);
         }
 
         return null;
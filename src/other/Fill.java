@@ -13,6 +13,7 @@ public class Fill {
     // members
     private Color color;
     private Image image;
+    private String imageName;
 
     /**
      * Constructs a fill by color.
@@ -22,6 +23,7 @@ public class Fill {
     public Fill(Color color) {
         this.color = color;
         this.image = null;
+        this.imageName = null;
     }
 
     /**
@@ -32,6 +34,19 @@ public class Fill {
     public Fill(Image image) {
         this.image = image;
         this.color = null;
+        this.imageName = null;
+    }
+
+    /**
+     * Constructs a fill by an image read from a resource file.
+     *
+     * @param image     the fill image.
+     * @param imageName the resource file the image was read from.
+     */
+    public Fill(Image image, String imageName) {
+        this.image = image;
+        this.color = null;
+        this.imageName = imageName;
     }
 
     /**
@@ -51,4 +66,13 @@ public class Fill {
     public Image getImage() {
         return this.image;
     }
+
+    /**
+     * Return the resource file the fill image was read from.
+     *
+     * @return the fill image file, null if unknown or if this fill is a color.
+     */
+    public String getImageName() {
+        return this.imageName;
+    }
 }
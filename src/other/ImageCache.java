@@ -0,0 +1,141 @@
+package other;
+
+import javax.imageio.ImageIO;
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.GraphicsEnvironment;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded cache of the images read from resource files, keyed by the
+ * resource path, that evicts the least recently used images first.
+ * Every image is decoded once and copied to an image in the screen pixel
+ * format, which Java2D keeps in video memory and draws accelerated.
+ * The cache may be used from several threads.
+ *
+ * @author Shahaf Mordechay
+ */
+public class ImageCache {
+
+    // members
+    private long maxBytes;
+    private long bytes;
+    private Map<String, BufferedImage> images;
+
+    /**
+     * Constructs an empty image cache.
+     *
+     * @param maxBytes the estimated size of the images to keep, in bytes.
+     */
+    public ImageCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+        this.bytes = 0;
+        this.images = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Return the image of the given resource file, reading it only if it
+     * is not in the cache.
+     *
+     * @param fileName the image resource file.
+     * @return the image, null if it cannot be read.
+     */
+    public synchronized Image get(String fileName) {
+        BufferedImage image = this.images.get(fileName);
+        if (image != null) {
+            return image;
+        }
+
+        image = read(fileName);
+        if (image == null) {
+            return null;
+        }
+
+        this.images.put(fileName, image);
+        this.bytes += sizeOf(image);
+        this.evict();
+
+        return image;
+    }
+
+    /**
+     * Return the number of images in the cache.
+     *
+     * @return the number of cached images.
+     */
+    public synchronized int size() {
+        return this.images.size();
+    }
+
+    /**
+     * Remove least recently used images until the cache is within its
+     * size, always keeping the most recent image.
+     */
+    private void evict() {
+        Iterator<BufferedImage> iterator = this.images.values().iterator();
+        while (this.bytes > this.maxBytes && this.images.size() > 1) {
+            this.bytes -= sizeOf(iterator.next());
+            iterator.remove();
+        }
+    }
+
+    /**
+     * Read the image of the given resource file, in the screen pixel format
+     * when there is a screen.
+     *
+     * @param fileName the image resource file.
+     * @return the image, null if it cannot be read.
+     */
+    private static BufferedImage read(String fileName) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(fileName);
+        if (is == null) {
+            System.err.println("Unable to find image: " + fileName);
+            return null;
+        }
+
+        try {
+            BufferedImage image = ImageIO.read(is);
+            if (image == null || GraphicsEnvironment.isHeadless()) {
+                return image;
+            }
+
+            GraphicsConfiguration configuration = GraphicsEnvironment
+                    .getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                    .getDefaultConfiguration();
+            BufferedImage compatible = configuration.createCompatibleImage(
+                    image.getWidth(), image.getHeight(), image.getTransparency());
+
+            Graphics graphics = compatible.getGraphics();
+            graphics.drawImage(image, 0, 0, null);
+            graphics.dispose();
+
+            return compatible;
+        } catch (IOException e) {
+            System.err.println("Failed reading image");
+            e.printStackTrace(System.err);
+            return null;
+        } finally {
+            try {
+                is.close();
+            } catch (IOException e) {
+                System.err.println("Failed closing file");
+            }
+        }
+    }
+
+    /**
+     * Return the estimated size of the given image in memory.
+     *
+     * @param image the image.
+     * @return the image size in bytes.
+     */
+    private static long sizeOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+}
@@ -4,14 +4,16 @@ import geometry.Point;
 
 /**
  * A velocity of an object represented by dx and dy.
+ * A velocity never changes, so it may be shared; mirroring it returns a
+ * new velocity.
  *
  * @author Shahaf Mordechay
  */
 public class Velocity {
 
     // members
-    private double dx;
-    private double dy;
+    private final double dx;
+    private final double dy;
 
     /**
      * Constructs and initializes the other.Velocity with specified
@@ -43,6 +45,26 @@ public class Velocity {
         return this.dy;
     }
 
+    /**
+     * Return this velocity with its dx negated, as after bouncing off a
+     * vertical edge.
+     *
+     * @return the velocity (-dx, dy).
+     */
+    public Velocity mirrorX() {
+        return new Velocity(-this.dx, this.dy);
+    }
+
+    /**
+     * Return this velocity with its dy negated, as after bouncing off a
+     * horizontal edge.
+     *
+     * @return the velocity (dx, -dy).
+     */
+    public Velocity mirrorY() {
+        return new Velocity(this.dx, -this.dy);
+    }
+
     /**
      * Return the angle of the direction, according to dx, dy.
      *
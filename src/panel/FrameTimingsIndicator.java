@@ -0,0 +1,85 @@
+package panel;
+
+import animations.FrameTimings;
+import biuoop.DrawSurface;
+import game.GameWorld;
+import sprites.Sprite;
+
+import java.awt.Color;
+import java.util.Locale;
+
+/**
+ * Shows the frame time percentiles and the number of dropped frames on
+ * the left of the panel.
+ *
+ * @author Shahaf Mordechay
+ */
+public class FrameTimingsIndicator implements Sprite {
+
+    // timings text properties
+    private static final Color TIMINGS_COLOR = Color.black;
+    private static final int FONT_SIZE = 11;
+    private static final int X_COORDINATE = 30;
+    private static final double NANOS_PER_MILLISECOND = 1000000.0;
+
+    // frames between two text refreshes
+    private static final int REFRESH_FRAMES = 30;
+
+    // members
+    private FrameTimings timings;
+    private int panelHeight;
+    private String text;
+    private long refreshedAt;
+
+    /**
+     * Constructs and initializes a new frame timings indicator.
+     *
+     * @param timings     the frame timings to show.
+     * @param panelHeight the height of the panel.
+     */
+    public FrameTimingsIndicator(FrameTimings timings, int panelHeight) {
+        this.timings = timings;
+        this.panelHeight = panelHeight;
+        this.text = "";
+        this.refreshedAt = -REFRESH_FRAMES;
+    }
+
+    /**
+     * draw the frame time p50/p95/p99 in milliseconds and the dropped
+     * frames count, refreshed every few frames.
+     *
+     * @param d the screen to draw on.
+     */
+    public void drawOn(DrawSurface d) {
+        long count = this.timings.getCount();
+        if (count - this.refreshedAt >= REFRESH_FRAMES) {
+            this.text = String.format(Locale.ROOT, "ms %.1f/%.1f/%.1f drop %d",
+                    this.timings.percentile(FrameTimings.TOTAL, 50) / NANOS_PER_MILLISECOND,
+                    this.timings.percentile(FrameTimings.TOTAL, 95) / NANOS_PER_MILLISECOND,
+                    this.timings.percentile(FrameTimings.TOTAL, 99) / NANOS_PER_MILLISECOND,
+                    this.timings.getDroppedFrames());
+            this.refreshedAt = count;
+        }
+
+        d.setColor(TIMINGS_COLOR);
+        d.drawText(X_COORDINATE, this.panelHeight / 4 * 3, this.text, FONT_SIZE);
+    }
+
+    /**
+     * notify the sprite that time has passed.
+     *
+     * @param dt the amount of seconds passed since the last call.
+     */
+    public void timePassed(double dt) {
+
+    }
+
+    /**
+     * Add this frame timings indicator to game sprites.
+     *
+     * @param g the game to add this frame timings indicator to.
+     */
+    public void addToGame(GameWorld g) {
+        g.addSprite(this);
+    }
+}
@@ -1,7 +1,7 @@
 package panel;
 
 import biuoop.DrawSurface;
-import game.GameLevel;
+import game.GameWorld;
 import sprites.Sprite;
 import collidables.Block;
 
@@ -59,7 +59,7 @@ public class LevelName implements Sprite {
      *
      * @param g the game to add this ball to.
      */
-    public void addToGame(GameLevel g) {
+    public void addToGame(GameWorld g) {
         g.addSprite(this);
     }
 }
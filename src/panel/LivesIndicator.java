@@ -1,7 +1,7 @@
 package panel;
 
 import biuoop.DrawSurface;
-import game.GameLevel;
+import game.GameWorld;
 import other.Counter;
 import sprites.Sprite;
 import collidables.Block;
@@ -21,6 +21,8 @@ public class LivesIndicator implements Sprite {
     // members
     private Block panel;
     private Counter numOfLives;
+    private int shownLives;
+    private String text;
 
     /**
      * Constructs and initializes a new score panel.
@@ -31,6 +33,8 @@ public class LivesIndicator implements Sprite {
     public LivesIndicator(Block panel, Counter numOfLives) {
         this.panel = panel;
         this.numOfLives = numOfLives;
+        this.shownLives = numOfLives.getValue();
+        this.text = "Lives: " + Integer.toString(this.shownLives);
     }
 
     /**
@@ -39,11 +43,15 @@ public class LivesIndicator implements Sprite {
      * @param d the screen to draw on.
      */
     public void drawOn(DrawSurface d) {
-        String scoreText = "Lives: " + Integer.toString(this.numOfLives.getValue());
+        if (this.numOfLives.getValue() != this.shownLives) {
+            this.shownLives = this.numOfLives.getValue();
+            this.text = "Lives: " + Integer.toString(this.shownLives);
+        }
+
         int xCoordinate = (int) this.panel.getCollisionRectangle().getWidth() / 4;
         int yCoordinate = (int) this.panel.getCollisionRectangle().getHeight() / 4 * 3;
         d.setColor(LIVES_COLOR);
-        d.drawText(xCoordinate, yCoordinate, scoreText, 15);
+        d.drawText(xCoordinate, yCoordinate, this.text, 15);
     }
 
     /**
@@ -60,7 +68,7 @@ public class LivesIndicator implements Sprite {
      *
      * @param g the game to add this lives indicator to.
      */
-    public void addToGame(GameLevel g) {
+    public void addToGame(GameWorld g) {
         g.addSprite(this);
     }
 }
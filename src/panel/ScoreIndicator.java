@@ -1,7 +1,7 @@
 package panel;
 
 import biuoop.DrawSurface;
-import game.GameLevel;
+import game.GameWorld;
 import other.Counter;
 import sprites.Sprite;
 import collidables.Block;
@@ -21,6 +21,8 @@ public class ScoreIndicator implements Sprite {
     // members
     private Block scorePanel;
     private Counter score;
+    private int shownScore;
+    private String text;
 
     /**
      * Constructs and initializes a new score panel.
@@ -31,20 +33,28 @@ public class ScoreIndicator implements Sprite {
     public ScoreIndicator(Block scorePanel, Counter score) {
         this.scorePanel = scorePanel;
         this.score = score;
+        this.shownScore = score.getValue();
+        this.text = "Score: " + Integer.toString(this.shownScore);
     }
 
     /**
-     * draw a panel with current game score on the top of the screen.
+     * draw the current game score on the panel at the top of the screen.
+     * The panel block itself does not change, so it is drawn with the
+     * static layer, and the text is only made again when the score
+     * changes.
      *
      * @param d the screen to draw on.
      */
     public void drawOn(DrawSurface d) {
-        this.scorePanel.drawOn(d);
-        String scoreText = "Score: " + Integer.toString(this.score.getValue());
+        if (this.score.getValue() != this.shownScore) {
+            this.shownScore = this.score.getValue();
+            this.text = "Score: " + Integer.toString(this.shownScore);
+        }
+
         int xCoordinate = (int) this.scorePanel.getCollisionRectangle().getWidth() / 2;
         int yCoordinate = (int) this.scorePanel.getCollisionRectangle().getHeight() / 4 * 3;
         d.setColor(SCORE_COLOR);
-        d.drawText(xCoordinate, yCoordinate, scoreText, 15);
+        d.drawText(xCoordinate, yCoordinate, this.text, 15);
     }
 
     /**
@@ -61,7 +71,7 @@ public class ScoreIndicator implements Sprite {
      *
      * @param g the game to add this score indicator to.
      */
-    public void addToGame(GameLevel g) {
+    public void addToGame(GameWorld g) {
         g.addSprite(this);
     }
 }
@@ -0,0 +1,91 @@
+package readers;
+
+import factories.BlocksFromSymbolsFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * A cache of the block factories read from block definitions resource
+ * files, keyed by the resource path.
+ * Levels that share a block definitions file share a single factory, so
+ * the file is read and parsed, and its fills decoded, once however many
+ * levels refer to it. A resource on the class path does not change while
+ * the game runs, so a cached factory is never read again.
+ * The cached factories are never changed, and the cache may be used from
+ * several threads; a factory that is already cached is returned without
+ * locking.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BlockDefinitionsCache {
+
+    // members
+    private Map<String, BlocksFromSymbolsFactory> factories;
+    private Function<String, BlocksFromSymbolsFactory> parser;
+
+    /**
+     * Constructs an empty cache.
+     */
+    public BlockDefinitionsCache() {
+        this.factories = new ConcurrentHashMap<>();
+        this.parser = new Function<String, BlocksFromSymbolsFactory>() {
+            @Override
+            public BlocksFromSymbolsFactory apply(String fileName) {
+                try {
+                    return parse(fileName);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+    }
+
+    /**
+     * Return the block factory of the given block definitions resource
+     * file, reading and parsing the file only if it is not in the cache.
+     *
+     * @param fileName the block definitions resource file.
+     * @return the block factory.
+     * @throws IOException if the file cannot be read or parsed.
+     */
+    public BlocksFromSymbolsFactory get(String fileName) throws IOException {
+        try {
+            return this.factories.computeIfAbsent(fileName, this.parser);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Return the number of factories in the cache.
+     *
+     * @return the number of cached factories.
+     */
+    public int size() {
+        return this.factories.size();
+    }
+
+    /**
+     * Read and parse the given block definitions resource file.
+     *
+     * @param fileName the block definitions resource file.
+     * @return the block factory.
+     * @throws IOException if the file cannot be read or parsed.
+     */
+    private static BlocksFromSymbolsFactory parse(String fileName) throws IOException {
+        byte[] content = CompiledLevelSets.readResource(fileName);
+        BlocksFromSymbolsFactory factory = BlocksDefinitionReader.fromReader(
+                new InputStreamReader(new ByteArrayInputStream(content)));
+        if (factory == null) {
+            throw new IOException("Failed parsing file: " + fileName);
+        }
+
+        return factory;
+    }
+}
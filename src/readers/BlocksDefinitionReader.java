@@ -2,11 +2,14 @@ package readers;
 
 import factories.BlocksFromSymbolsFactory;
 
+import java.io.BufferedReader;
 import java.io.Reader;
 import java.io.IOException;
 
 /**
  * Create a block factory from a given reader.
+ * The reader is read one line at a time, so the definitions are never
+ * held in memory as a whole.
  *
  * @author Shahaf Mordechay
  */
@@ -23,14 +26,10 @@ public class BlocksDefinitionReader {
         BlocksFromSymbolsFactory blocksFactory = new BlocksFromSymbolsFactory();
 
         try {
-            char[] charBuffer = new char[3000];
-            reader.read(charBuffer);
-            String blocksDef = new String(charBuffer).replace("\r\n", "\n");
-
-            String[] lines = blocksDef.split("\n");
+            BufferedReader lines = new BufferedReader(reader);
             String defaultsProperties = "";
 
-            for (String line : lines) {
+            for (String line = lines.readLine(); line != null; line = lines.readLine()) {
 
                 String[] splittedLine = line.split(" ");
 
@@ -0,0 +1,349 @@
+package readers;
+
+import collidables.Block;
+import geometry.Rectangle;
+import levels.Level;
+import levels.LevelInformation;
+import menu.LevelSet;
+import other.ColorsParser;
+import other.Fill;
+import other.Velocity;
+import sprites.Background;
+
+import java.awt.Color;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+import java.util.zip.CRC32;
+
+/**
+ * Level sets loaded from a file written by LevelSetCompiler.
+ * The file is memory mapped and only its fills table and level sets
+ * headers are read on load; the levels of a set are read from the mapped
+ * buffer each time they are asked for, so every game gets new blocks.
+ * Image fills are kept by their file name and are read through the
+ * images cache only when a level that uses them is read, so loading the
+ * file does not decode any image.
+ * The file keeps the CRC32 of every text file it was compiled from, so a
+ * file compiled before its sources changed can be told by isUpToDate.
+ *
+ * @author Shahaf Mordechay
+ */
+public class CompiledLevelSets {
+
+    // file format
+    public static final int MAGIC = 0x424B4C53;
+    public static final short VERSION = 2;
+    public static final byte COLOR_FILL = 0;
+    public static final byte IMAGE_FILL = 1;
+
+    // members
+    private ByteBuffer buffer;
+    private Map<String, Integer> sources;
+    private Fill[] fills;
+    private String[] imageNames;
+    private List<LevelSet> levelSets;
+    private Map<String, Integer> levelsPositions;
+
+    /**
+     * Constructs level sets from a mapped compiled file.
+     *
+     * @param buffer the compiled file content.
+     * @throws IOException if the content is not a compiled level sets file.
+     */
+    private CompiledLevelSets(ByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        this.levelSets = new ArrayList<>();
+        this.levelsPositions = new HashMap<>();
+        this.sources = new LinkedHashMap<>();
+
+        try {
+            if (buffer.getInt() != MAGIC || buffer.getShort() != VERSION) {
+                throw new IOException("Not a compiled level sets file of version " + VERSION);
+            }
+
+            int numOfSources = buffer.getInt();
+            for (int i = 0; i < numOfSources; i++) {
+                this.sources.put(readString(buffer), buffer.getInt());
+            }
+
+            this.fills = new Fill[buffer.getInt()];
+            this.imageNames = new String[this.fills.length];
+            for (int i = 0; i < this.fills.length; i++) {
+                if (buffer.get() == COLOR_FILL) {
+                    this.fills[i] = new Fill(new Color(buffer.getInt()));
+                } else {
+                    this.imageNames[i] = readString(buffer);
+                }
+            }
+
+            int numOfSets = buffer.getInt();
+            for (int i = 0; i < numOfSets; i++) {
+                LevelSet levelSet = new LevelSet(readString(buffer), readString(buffer),
+                        readString(buffer));
+                int levelsLength = buffer.getInt();
+
+                this.levelSets.add(levelSet);
+                this.levelsPositions.put(levelSet.getKey(), buffer.position());
+                buffer.position(buffer.position() + levelsLength);
+            }
+        } catch (BufferUnderflowException | IllegalArgumentException e) {
+            throw new IOException("Compiled level sets file is truncated", e);
+        }
+    }
+
+    /**
+     * Load the given compiled level sets file.
+     *
+     * @param file the compiled file.
+     * @return the file level sets.
+     * @throws IOException if the file cannot be read or is not a compiled
+     *                     level sets file.
+     */
+    public static CompiledLevelSets load(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new CompiledLevelSets(
+                    channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * Tell if the text files the file was compiled from are unchanged
+     * since it was compiled.
+     *
+     * @return true if every source file is found and has the checksum it
+     *         had when the file was compiled.
+     */
+    public boolean isUpToDate() {
+        for (Map.Entry<String, Integer> source : this.sources.entrySet()) {
+            try {
+                if (checksum(readResource(source.getKey())) != source.getValue()) {
+                    return false;
+                }
+            } catch (IOException e) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Return the level sets in the file.
+     *
+     * @return the level sets.
+     */
+    public List<LevelSet> getLevelSets() {
+        return this.levelSets;
+    }
+
+    /**
+     * Tell if there is a level set with the given key in the file.
+     *
+     * @param key the level set key.
+     * @return true if the level set was compiled.
+     */
+    public boolean hasLevelSet(String key) {
+        return this.levelsPositions.containsKey(key);
+    }
+
+    /**
+     * Return new levels of the level set with the given key.
+     *
+     * @param key the level set key.
+     * @return the level set levels, an empty list if there is no such set.
+     */
+    public List<LevelInformation> levels(String key) {
+        List<LevelInformation> levels = new ArrayList<>();
+        for (Supplier<LevelInformation> loader : this.levelLoaders(key)) {
+            levels.add(loader.get());
+        }
+
+        return levels;
+    }
+
+    /**
+     * Return a loader of every level of the level set with the given key,
+     * that reads a new level each time it is asked for one, so the levels
+     * can be read one at a time by a LevelPreloader.
+     * Only the position of every level is found here, without reading it.
+     *
+     * @param key the level set key.
+     * @return the level set level loaders, an empty list if there is no
+     *         such set.
+     */
+    public List<Supplier<LevelInformation>> levelLoaders(String key) {
+        List<Supplier<LevelInformation>> loaders = new ArrayList<>();
+        Integer position = this.levelsPositions.get(key);
+        if (position == null) {
+            return loaders;
+        }
+
+        ByteBuffer in = this.buffer.duplicate();
+        in.position(position);
+
+        int numOfLevels = in.getInt();
+        for (int i = 0; i < numOfLevels; i++) {
+            int levelPosition = in.position();
+            loaders.add(new Supplier<LevelInformation>() {
+                @Override
+                public LevelInformation get() {
+                    ByteBuffer level = buffer.duplicate();
+                    level.position(levelPosition);
+                    return readLevel(level);
+                }
+            });
+            skipLevel(in);
+        }
+
+        return loaders;
+    }
+
+    /**
+     * Read a level from the given buffer.
+     *
+     * @param in the buffer, at the start of a level.
+     * @return the level.
+     */
+    private LevelInformation readLevel(ByteBuffer in) {
+        String levelName = readString(in);
+        int paddleSpeed = in.getInt();
+        int paddleWidth = in.getInt();
+        Background background = new Background(this.fill(in.getInt()));
+
+        List<Velocity> velocities = new ArrayList<>();
+        int numOfVelocities = in.getInt();
+        for (int i = 0; i < numOfVelocities; i++) {
+            velocities.add(new Velocity(in.getDouble(), in.getDouble()));
+        }
+
+        List<Block> blocks = new ArrayList<>();
+        int numOfBlocks = in.getInt();
+        for (int i = 0; i < numOfBlocks; i++) {
+            Rectangle rectangle = new Rectangle(in.getInt(), in.getInt(), in.getInt(), in.getInt());
+            int hitPoints = in.getInt();
+            int fill = in.getInt();
+            boolean hasStroke = in.get() != 0;
+            int stroke = in.getInt();
+
+            Block block = new Block(rectangle, this.fill(fill), hitPoints);
+            block.setStroke(hasStroke ? new Color(stroke) : null);
+
+            Map<Integer, Fill> fillsMap = new TreeMap<>();
+            int numOfFills = in.getInt();
+            for (int j = 0; j < numOfFills; j++) {
+                fillsMap.put(in.getInt(), this.fill(in.getInt()));
+            }
+            block.addFills(fillsMap);
+
+            blocks.add(block);
+        }
+
+        return new Level(velocities, paddleSpeed, paddleWidth, levelName, background, blocks);
+    }
+
+    /**
+     * Move the given buffer past a level without reading it.
+     *
+     * @param in the buffer, at the start of a level.
+     */
+    private static void skipLevel(ByteBuffer in) {
+        // name, paddle speed, paddle width and background fill
+        int nameLength = in.getShort() & 0xFFFF;
+        in.position(in.position() + nameLength + 3 * 4);
+
+        // velocities of two doubles
+        int numOfVelocities = in.getInt();
+        in.position(in.position() + numOfVelocities * 2 * 8);
+
+        // blocks of a rectangle, hit points, fill, stroke and fill-k pairs
+        int numOfBlocks = in.getInt();
+        for (int i = 0; i < numOfBlocks; i++) {
+            in.position(in.position() + 4 * 4 + 4 + 4 + 1 + 4);
+            int numOfFills = in.getInt();
+            in.position(in.position() + numOfFills * 2 * 4);
+        }
+    }
+
+    /**
+     * Return the fill at the given index of the fills table, reading its
+     * image the first time an image fill is asked for.
+     *
+     * @param index the fill index, -1 for no fill.
+     * @return the fill, null for index -1.
+     */
+    private synchronized Fill fill(int index) {
+        if (index == -1) {
+            return null;
+        }
+
+        if (this.fills[index] == null) {
+            this.fills[index] = ColorsParser.fillFromString("image(" + this.imageNames[index] + ")");
+        }
+
+        return this.fills[index];
+    }
+
+    /**
+     * Read the whole of the given resource file.
+     *
+     * @param resource the resource file.
+     * @return the resource bytes.
+     * @throws IOException if the resource is not found or cannot be read.
+     */
+    static byte[] readResource(String resource) throws IOException {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(resource);
+        if (is == null) {
+            throw new IOException("Unable to find file: " + resource);
+        }
+
+        try (InputStream in = is) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            int length = in.read(chunk);
+            while (length != -1) {
+                bytes.write(chunk, 0, length);
+                length = in.read(chunk);
+            }
+
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Return the CRC32 of the given bytes.
+     *
+     * @param bytes the bytes.
+     * @return the bytes checksum.
+     */
+    static int checksum(byte[] bytes) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Read a string written as its UTF-8 bytes length and bytes.
+     *
+     * @param in the buffer to read from.
+     * @return the string read.
+     */
+    private static String readString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
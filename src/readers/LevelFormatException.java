@@ -0,0 +1,48 @@
+package readers;
+
+/**
+ * Thrown when a level definitions text is malformed, telling where in
+ * the text the problem is.
+ *
+ * @author Shahaf Mordechay
+ */
+public class LevelFormatException extends IllegalArgumentException {
+
+    // the version of the exceptions saved by Java serialization
+    private static final long serialVersionUID = -8780698495905539630L;
+
+    // members
+    private int line;
+    private int column;
+
+    /**
+     * Constructs a new exception of a problem at a given place.
+     *
+     * @param message the problem.
+     * @param line    the line of the problem, from 1.
+     * @param column  the column of the problem, from 1.
+     */
+    public LevelFormatException(String message, int line, int column) {
+        super("line " + line + ", column " + column + ": " + message);
+        this.line = line;
+        this.column = column;
+    }
+
+    /**
+     * Return the line of the problem.
+     *
+     * @return the line, from 1.
+     */
+    public int getLine() {
+        return this.line;
+    }
+
+    /**
+     * Return the column of the problem.
+     *
+     * @return the column, from 1.
+     */
+    public int getColumn() {
+        return this.column;
+    }
+}
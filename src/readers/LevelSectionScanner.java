@@ -0,0 +1,120 @@
+package readers;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * Reads a level definitions text one line at a time and returns the
+ * text of one level at a time, the lines between a START_LEVEL line and
+ * its END_LEVEL line, so a file of any size is read in a single pass and
+ * only a single level is kept in memory.
+ * Outside the levels only empty lines and comment lines, starting with
+ * '#', are allowed.
+ *
+ * @author Shahaf Mordechay
+ */
+public class LevelSectionScanner implements Closeable {
+
+    // section keywords
+    private static final String START_LEVEL = "START_LEVEL";
+    private static final String END_LEVEL = "END_LEVEL";
+
+    // members
+    private BufferedReader reader;
+    private StringBuilder section;
+    private int lineNumber;
+    private int sectionLine;
+
+    /**
+     * Constructs a new scanner of the given reader.
+     *
+     * @param reader the level definitions reader.
+     */
+    public LevelSectionScanner(Reader reader) {
+        if (reader instanceof BufferedReader) {
+            this.reader = (BufferedReader) reader;
+        } else {
+            this.reader = new BufferedReader(reader);
+        }
+
+        this.section = new StringBuilder();
+        this.lineNumber = 0;
+        this.sectionLine = 0;
+    }
+
+    /**
+     * Read the next level of the text.
+     *
+     * @return the lines of the next level, each ending with a new line,
+     *         or null if there are no more levels.
+     * @throws IOException if the reader fails.
+     * @throws LevelFormatException if there is text outside a level, or a
+     *                              level does not end.
+     */
+    public String nextSection() throws IOException {
+        String line = this.reader.readLine();
+
+        // skip to the next level
+        while (line != null) {
+            this.lineNumber++;
+            String trimmed = line.trim();
+
+            if (trimmed.equals(START_LEVEL)) {
+                break;
+            } else if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                throw new LevelFormatException("expected " + START_LEVEL + " but found: "
+                        + trimmed, this.lineNumber, line.indexOf(trimmed) + 1);
+            }
+
+            line = this.reader.readLine();
+        }
+
+        if (line == null) {
+            return null;
+        }
+
+        int startLine = this.lineNumber;
+        this.sectionLine = startLine + 1;
+        this.section.setLength(0);
+
+        line = this.reader.readLine();
+        while (line != null) {
+            this.lineNumber++;
+            String trimmed = line.trim();
+
+            if (trimmed.equals(END_LEVEL)) {
+                return this.section.toString();
+            } else if (trimmed.equals(START_LEVEL)) {
+                throw new LevelFormatException("level started at line " + startLine
+                        + " has no " + END_LEVEL, this.lineNumber, line.indexOf(trimmed) + 1);
+            }
+
+            this.section.append(line).append('\n');
+            line = this.reader.readLine();
+        }
+
+        throw new LevelFormatException("level started at line " + startLine
+                + " has no " + END_LEVEL, this.lineNumber + 1, 1);
+    }
+
+    /**
+     * Return the line number of the first line of the last level read,
+     * the line after its START_LEVEL line.
+     *
+     * @return the level first line number, from 1.
+     */
+    public int getSectionLine() {
+        return this.sectionLine;
+    }
+
+    /**
+     * Close the reader.
+     *
+     * @throws IOException if the reader fails closing.
+     */
+    public void close() throws IOException {
+        this.reader.close();
+    }
+}
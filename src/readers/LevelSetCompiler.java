@@ -0,0 +1,328 @@
+package readers;
+
+import collidables.Block;
+import geometry.Rectangle;
+import levels.LevelInformation;
+import menu.LevelSet;
+import menu.LevelSets;
+import other.Fill;
+import other.Velocity;
+import sprites.Background;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Compiles a level sets file and the level definitions it refers to into
+ * a single binary file that CompiledLevelSets loads without parsing.
+ * The levels are read with the text readers, so the compiled file holds
+ * exactly what the game would read: the block rectangles, hit points and
+ * stroke colors, and indices to a table of resolved fills.
+ * The CRC32 of the level sets file, of every level definitions file and
+ * of every block definitions file they refer to is kept too, so the game
+ * reads the text files instead of a compiled file they changed after.
+ *
+ * The file layout (big endian, strings as a short length and UTF-8 bytes):
+ * <pre>
+ * int magic, short version
+ * int sources count, per source: string resource file, int CRC32
+ * int fills count, per fill: byte kind, int rgb (color) or string (image)
+ * int sets count, per set: string key, string message, string file,
+ *     int levels byte length, int levels count, per level:
+ *     string name, int paddle speed, int paddle width, int background fill,
+ *     int velocities count, per velocity: double dx, double dy,
+ *     int blocks count, per block: int x, int y, int width, int height,
+ *         int hit points, int fill, byte has stroke, int stroke rgb,
+ *         int fill-k count, per fill-k: int hit points, int fill
+ * </pre>
+ *
+ * @author Shahaf Mordechay
+ */
+public class LevelSetCompiler {
+
+    // default files
+    private static final String DEFAULT_LEVEL_SETS = "level_sets.txt";
+    private static final String DEFAULT_OUTPUT = "level_sets.bin";
+
+    // the level property of the block definitions file
+    private static final String BLOCK_DEFINITIONS_KEY = "block_definitions:";
+
+    // members
+    private List<Fill> fills;
+    private Map<String, Integer> fillIndices;
+    private Map<String, Integer> sources;
+
+    /**
+     * Constructs a new compiler with an empty fills table.
+     */
+    public LevelSetCompiler() {
+        this.fills = new ArrayList<>();
+        this.fillIndices = new HashMap<>();
+        this.sources = new LinkedHashMap<>();
+    }
+
+    /**
+     * Compile the given level sets resource file into the given file.
+     *
+     * @param levelSetsResource the level sets resource file.
+     * @param outputFile        the compiled file to write.
+     * @throws IOException if a file cannot be read or written, or a level
+     *                     definitions file is malformed.
+     */
+    public void compile(String levelSetsResource, String outputFile) throws IOException {
+        List<LevelSet> levelSets = LevelSets.levelSetsFromReader(openResource(levelSetsResource));
+        if (levelSets == null) {
+            throw new IOException("No level sets in: " + levelSetsResource);
+        }
+        this.addSource(levelSetsResource);
+
+        // levels first, so the fills table is complete before it is written
+        List<byte[]> compiledSets = new ArrayList<>();
+        for (LevelSet levelSet : levelSets) {
+            compiledSets.add(this.compileLevels(readLevels(levelSet.getFilename())));
+            this.addDefinitionsSources(levelSet.getFilename());
+        }
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(outputFile)))) {
+            out.writeInt(CompiledLevelSets.MAGIC);
+            out.writeShort(CompiledLevelSets.VERSION);
+
+            out.writeInt(this.sources.size());
+            for (Map.Entry<String, Integer> source : this.sources.entrySet()) {
+                writeString(out, source.getKey());
+                out.writeInt(source.getValue());
+            }
+
+            out.writeInt(this.fills.size());
+            for (Fill fill : this.fills) {
+                if (fill.getColor() != null) {
+                    out.writeByte(CompiledLevelSets.COLOR_FILL);
+                    out.writeInt(fill.getColor().getRGB());
+                } else {
+                    out.writeByte(CompiledLevelSets.IMAGE_FILL);
+                    writeString(out, fill.getImageName());
+                }
+            }
+
+            out.writeInt(levelSets.size());
+            for (int i = 0; i < levelSets.size(); i++) {
+                writeString(out, levelSets.get(i).getKey());
+                writeString(out, levelSets.get(i).getMessage());
+                writeString(out, levelSets.get(i).getFilename());
+                out.writeInt(compiledSets.get(i).length);
+                out.write(compiledSets.get(i));
+            }
+        }
+    }
+
+    /**
+     * Keep the checksum of the given source resource file.
+     *
+     * @param resource the source resource file.
+     * @return the resource bytes.
+     * @throws IOException if the resource cannot be read.
+     */
+    private byte[] addSource(String resource) throws IOException {
+        byte[] bytes = CompiledLevelSets.readResource(resource);
+        this.sources.put(resource, CompiledLevelSets.checksum(bytes));
+        return bytes;
+    }
+
+    /**
+     * Keep the checksums of the given level definitions resource file and
+     * of the block definitions files its levels refer to.
+     *
+     * @param resource the level definitions resource file.
+     * @throws IOException if a resource cannot be read.
+     */
+    private void addDefinitionsSources(String resource) throws IOException {
+        String text = new String(this.addSource(resource), StandardCharsets.UTF_8);
+
+        for (String line : text.split("\n")) {
+            String trimmed = line.trim();
+            if (trimmed.startsWith(BLOCK_DEFINITIONS_KEY)) {
+                String blockDefinitions = trimmed.substring(BLOCK_DEFINITIONS_KEY.length()).trim();
+                if (!this.sources.containsKey(blockDefinitions)) {
+                    this.addSource(blockDefinitions);
+                }
+            }
+        }
+    }
+
+    /**
+     * Read every level of the given level definitions resource file.
+     * Unlike the game, that plays the levels before a malformed one, a
+     * malformed level fails the compile, so a compiled file never holds
+     * part of a level set.
+     *
+     * @param resource the level definitions resource file.
+     * @return the file levels.
+     * @throws IOException if the file cannot be read or a level in it is
+     *                     malformed, telling the file and the line.
+     */
+    private static List<LevelInformation> readLevels(String resource) throws IOException {
+        List<LevelInformation> levels = new ArrayList<>();
+
+        try {
+            new LevelSpecificationReader().readLevels(openResource(resource),
+                    new Consumer<LevelInformation>() {
+                        @Override
+                        public void accept(LevelInformation levelInformation) {
+                            levels.add(levelInformation);
+                        }
+                    });
+        } catch (LevelFormatException e) {
+            throw new IOException(resource + ": " + e.getMessage(), e);
+        }
+
+        return levels;
+    }
+
+    /**
+     * Compile the given levels.
+     *
+     * @param levels the levels to compile.
+     * @return the compiled levels count and levels.
+     * @throws IOException if a level cannot be compiled.
+     */
+    private byte[] compileLevels(List<LevelInformation> levels) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeInt(levels.size());
+        for (LevelInformation level : levels) {
+            if (!(level.getBackground() instanceof Background)) {
+                throw new IOException("Level has no background fill: " + level.levelName());
+            }
+
+            writeString(out, level.levelName());
+            out.writeInt(level.paddleSpeed());
+            out.writeInt(level.paddleWidth());
+            out.writeInt(this.fillIndex(((Background) level.getBackground()).getFill()));
+
+            out.writeInt(level.initialBallVelocities().size());
+            for (Velocity velocity : level.initialBallVelocities()) {
+                out.writeDouble(velocity.getDx());
+                out.writeDouble(velocity.getDy());
+            }
+
+            out.writeInt(level.blocks().size());
+            for (Block block : level.blocks()) {
+                Rectangle rect = block.getCollisionRectangle();
+                out.writeInt((int) rect.getUpperLeft().getX());
+                out.writeInt((int) rect.getUpperLeft().getY());
+                out.writeInt((int) rect.getWidth());
+                out.writeInt((int) rect.getHeight());
+                out.writeInt(block.getHitPoints());
+                out.writeInt(this.fillIndex(block.getFill()));
+                out.writeBoolean(block.getStroke() != null);
+                out.writeInt(block.getStroke() == null ? 0 : block.getStroke().getRGB());
+
+                out.writeInt(block.getFills().size());
+                for (Map.Entry<Integer, Fill> fillK : block.getFills().entrySet()) {
+                    out.writeInt(fillK.getKey());
+                    out.writeInt(this.fillIndex(fillK.getValue()));
+                }
+            }
+        }
+
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Return the index of the given fill in the fills table, adding it to
+     * the table if an equal fill is not there yet.
+     *
+     * @param fill the fill, may be null.
+     * @return the fill index, -1 for a null fill.
+     * @throws IOException if the fill is an image of an unknown file.
+     */
+    private int fillIndex(Fill fill) throws IOException {
+        if (fill == null) {
+            return -1;
+        }
+
+        String key;
+        if (fill.getColor() != null) {
+            key = "color:" + fill.getColor().getRGB();
+        } else if (fill.getImageName() != null) {
+            key = "image:" + fill.getImageName();
+        } else {
+            throw new IOException("Image fill without a file name");
+        }
+
+        Integer index = this.fillIndices.get(key);
+        if (index == null) {
+            index = this.fills.size();
+            this.fills.add(fill);
+            this.fillIndices.put(key, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Write a string as its UTF-8 bytes length and bytes.
+     *
+     * @param out the stream to write to.
+     * @param s   the string to write.
+     * @throws IOException if writing fails.
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Open a reader of the given resource file.
+     *
+     * @param resource the resource file.
+     * @return a reader of the resource.
+     * @throws IOException if the resource is not found.
+     */
+    private static Reader openResource(String resource) throws IOException {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(resource);
+        if (is == null) {
+            throw new IOException("Unable to find file: " + resource);
+        }
+
+        return new InputStreamReader(is, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Compile a level sets file.
+     * Arguments: level sets resource file (default level_sets.txt),
+     * compiled file (default level_sets.bin).
+     *
+     * @param args arguments passed to main.
+     */
+    public static void main(String[] args) {
+        String levelSets = args.length > 0 ? args[0] : DEFAULT_LEVEL_SETS;
+        String output = args.length > 1 ? args[1] : DEFAULT_OUTPUT;
+
+        try {
+            new LevelSetCompiler().compile(levelSets, output);
+            System.out.println("compiled " + levelSets + " to " + output);
+        } catch (IOException e) {
+            System.err.println("Failed compiling level sets: " + levelSets);
+            e.printStackTrace(System.err);
+            System.exit(1);
+        }
+    }
+}
@@ -5,26 +5,32 @@ import factories.BlocksFromSymbolsFactory;
 import levels.Level;
 import levels.LevelInformation;
 import other.ColorsParser;
+import other.Fill;
 import other.Velocity;
 import sprites.Background;
 import sprites.Sprite;
 
-import java.awt.Color;
-import java.io.InputStream;
 import java.io.Reader;
-import java.io.InputStreamReader;
 import java.io.IOException;
 import java.util.List;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.function.Consumer;
 
 /**
  * Get a level information list from reader.
+ * The reader is read one line at a time and every level is parsed as
+ * soon as its END_LEVEL line is read, so a level definitions file of any
+ * size is read in a single pass, keeping a single level text in memory.
+ * A malformed level is reported with a LevelFormatException that tells
+ * the line and column of the problem.
  *
  * @author Shahaf Mordechay
  */
 public class LevelSpecificationReader {
 
+    // the block factories of all the readers
+    private static final BlockDefinitionsCache BLOCK_DEFINITIONS = new BlockDefinitionsCache();
+
     // members
     private String levelName;
     private List<Velocity> velocities;
@@ -55,8 +61,31 @@ public class LevelSpecificationReader {
         this.blocks = new ArrayList<>();
     }
 
+    /**
+     * Parse the levels of the given reader one at a time, and give every
+     * level to the given consumer as soon as it is parsed.
+     * The reader is closed at the end.
+     *
+     * @param reader   holds information of level information.
+     * @param consumer gets every level, in the reader order.
+     * @throws IOException if the reader fails.
+     * @throws LevelFormatException if a level is malformed.
+     */
+    public void readLevels(Reader reader, Consumer<LevelInformation> consumer)
+            throws IOException {
+        try (LevelSectionScanner scanner = new LevelSectionScanner(reader)) {
+            String levelText = scanner.nextSection();
+            while (levelText != null) {
+                consumer.accept(this.parseLevel(levelText, scanner.getSectionLine()));
+                levelText = scanner.nextSection();
+            }
+        }
+    }
+
     /**
      * Return list of level information from given reader.
+     * On a malformed level the problem is printed, and the levels before
+     * it are returned.
      *
      * @param reader holds information of level information
      * @return list of level information.
@@ -65,84 +94,205 @@ public class LevelSpecificationReader {
 
         List<LevelInformation> levelInformationList = new ArrayList<>();
 
-        char[] charBuffer = new char[2000];
-
         try {
-            reader.read(charBuffer);
-            String levelsInfo = String.valueOf(charBuffer).replace("\r\n", "\n");
-            String[] separatedLevels = levelsInfo.split("START_LEVEL");
-
-            for (String level : separatedLevels) {
-                if (!level.isEmpty() && !level.substring(0, 2).contains("#")) {
-                    levelInformationList.add(getLevelInfoFromString(level));
+            this.readLevels(reader, new Consumer<LevelInformation>() {
+                @Override
+                public void accept(LevelInformation levelInformation) {
+                    levelInformationList.add(levelInformation);
                 }
-            }
-        } catch (IOException e) {
-            System.err.println("Failed reading object");
+            });
+        } catch (IOException | LevelFormatException e) {
+            System.err.println("Failed reading levels: " + e.getMessage());
             e.printStackTrace(System.err);
-        } finally {
-            try {
-                if (reader != null) {
-                    reader.close();
+        }
+
+        return levelInformationList;
+    }
+
+    /**
+     * Return the text of every level in the given reader, without parsing
+     * the levels, so each of them can be parsed later by levelFromText.
+     * On a malformed level the problem is printed, and the texts of the
+     * levels before it are returned.
+     *
+     * @param reader holds information of level information
+     * @return list of the levels texts.
+     */
+    public List<String> levelTextsFromReader(Reader reader) {
+        return this.levelTextsFromReader(reader, null);
+    }
+
+    /**
+     * Like levelTextsFromReader, and also add the line number of every
+     * level first line to the given list, so a malformed level parsed
+     * later by levelFromText is reported at its line in the reader.
+     *
+     * @param reader     holds information of level information
+     * @param firstLines gets the first line number of every level, from 1,
+     *                   in the levels order; may be null.
+     * @return list of the levels texts.
+     */
+    public List<String> levelTextsFromReader(Reader reader, List<Integer> firstLines) {
+
+        List<String> levelTexts = new ArrayList<>();
+
+        try (LevelSectionScanner scanner = new LevelSectionScanner(reader)) {
+            String levelText = scanner.nextSection();
+            while (levelText != null) {
+                levelTexts.add(levelText);
+                if (firstLines != null) {
+                    firstLines.add(scanner.getSectionLine());
                 }
-            } catch (IOException e) {
-                System.err.println("Failed closing file");
+                levelText = scanner.nextSection();
             }
+        } catch (IOException | LevelFormatException e) {
+            System.err.println("Failed reading levels: " + e.getMessage());
+            e.printStackTrace(System.err);
         }
 
-        return levelInformationList;
+        return levelTexts;
+    }
+
+    /**
+     * Return level information from the text of a single level, as
+     * returned by levelTextsFromReader.
+     * The lines of a malformed level are counted from the level first
+     * line.
+     *
+     * @param levelText the level text.
+     * @return new level information.
+     * @throws LevelFormatException if the level is malformed.
+     */
+    public LevelInformation levelFromText(String levelText) {
+        return this.levelFromText(levelText, 1);
     }
 
     /**
-     * Return level information from string.
+     * Return level information from the text of a single level, whose
+     * first line is at the given line of the level definitions it was
+     * read from, so the lines of a malformed level are counted from there.
      *
-     * @param level the level information string.
+     * @param levelText the level text.
+     * @param firstLine the line number of the level first line, from 1.
      * @return new level information.
+     * @throws LevelFormatException if the level is malformed.
      */
-    private LevelInformation getLevelInfoFromString(String level) {
+    public LevelInformation levelFromText(String levelText, int firstLine) {
+        return this.parseLevel(levelText, firstLine);
+    }
+
+    /**
+     * Return level information from the lines of a level, between its
+     * START_LEVEL and END_LEVEL lines: the level properties, and then the
+     * block rows between a START_BLOCKS line and an END_BLOCKS line.
+     * Empty lines and comment lines are allowed between the properties.
+     *
+     * @param levelText the level lines, each ending with a new line.
+     * @param firstLine the line number of the level first line.
+     * @return new level information.
+     * @throws LevelFormatException if the level is malformed.
+     */
+    private LevelInformation parseLevel(String levelText, int firstLine) {
 
         resetMembers();
 
-        String levelInfo = level.split("START_BLOCKS")[0];
-        String blocksInfo = level.split("START_BLOCKS")[1];
-        String[] properties = levelInfo.split("\n");
-        for (String property : properties) {
-            if (!property.isEmpty()) {
-                setPropertyValueFromString(property);
-            }
-        }
+        BlocksFromSymbolsFactory factory = null;
+        boolean blocksEnded = false;
+        int lineNumber = firstLine - 1;
+        int start = 0;
 
-        InputStream is = null;
-        Reader reader = null;
-        try {
-            is = ClassLoader.getSystemClassLoader().getResourceAsStream(this.blocksDefFile);
-            reader = new InputStreamReader(is);
-            /*File filename = new File(this.blocksDefFile);
-            Reader reader = new BufferedReader(
-                                new InputStreamReader(
-                                    new FileInputStream(filename)));*/
-
-            BlocksFromSymbolsFactory factory = BlocksDefinitionReader.
-                                                    fromReader(reader);
-
-            createAndAddBlocks(blocksInfo, factory);
-        } finally {
-        try {
-            if (is != null) {
-                is.close();
+        while (start < levelText.length()) {
+            int end = levelText.indexOf('\n', start);
+            if (end == -1) {
+                end = levelText.length();
             }
 
-            if (reader != null) {
-                reader.close();
+            String line = levelText.substring(start, end);
+            String trimmed = line.trim();
+            start = end + 1;
+            lineNumber++;
+
+            if (blocksEnded) {
+                if (!trimmed.isEmpty()) {
+                    throw new LevelFormatException("unexpected text after END_BLOCKS",
+                            lineNumber, line.indexOf(trimmed) + 1);
+                }
+            } else if (factory != null) {
+                if (trimmed.equals("END_BLOCKS")) {
+                    blocksEnded = true;
+                } else {
+                    addBlocksRow(line, factory);
+                }
+            } else if (trimmed.equals("START_BLOCKS")) {
+                checkProperties(lineNumber);
+                factory = readBlockDefinitions(lineNumber);
+            } else if (!trimmed.isEmpty() && !trimmed.startsWith("#")) {
+                setPropertyValueFromString(line, lineNumber);
             }
-        } catch (IOException e) {
-            System.err.println("Failed closing file");
         }
-    }
+
+        if (!blocksEnded) {
+            String missing = factory == null ? "START_BLOCKS" : "END_BLOCKS";
+            throw new LevelFormatException("level has no " + missing, lineNumber + 1, 1);
+        }
 
         return new Level(velocities, paddleSpeed, paddleWidth, levelName, background, blocks);
     }
 
+    /**
+     * Check that every level property was set before the blocks.
+     *
+     * @param lineNumber the START_BLOCKS line number.
+     * @throws LevelFormatException if a property is missing.
+     */
+    private void checkProperties(int lineNumber) {
+        String missing = null;
+
+        if (this.levelName == null) {
+            missing = "level_name";
+        } else if (this.velocities == null) {
+            missing = "ball_velocities";
+        } else if (this.background == null) {
+            missing = "background";
+        } else if (this.paddleSpeed == null) {
+            missing = "paddle_speed";
+        } else if (this.paddleWidth == null) {
+            missing = "paddle_width";
+        } else if (this.blocksDefFile == null) {
+            missing = "block_definitions";
+        } else if (this.startX == null) {
+            missing = "blocks_start_x";
+        } else if (this.startY == null) {
+            missing = "blocks_start_y";
+        } else if (this.rowHeight == null) {
+            missing = "row_height";
+        } else if (this.numOfBlocks == null) {
+            missing = "num_blocks";
+        }
+
+        if (missing != null) {
+            throw new LevelFormatException("missing property " + missing
+                    + " before START_BLOCKS", lineNumber, 1);
+        }
+    }
+
+    /**
+     * Return the block factory of the level block definitions file, shared
+     * with every level that uses the same file.
+     *
+     * @param lineNumber the START_BLOCKS line number.
+     * @return the level block factory.
+     * @throws LevelFormatException if the file cannot be read.
+     */
+    private BlocksFromSymbolsFactory readBlockDefinitions(int lineNumber) {
+        try {
+            return BLOCK_DEFINITIONS.get(this.blocksDefFile);
+        } catch (IOException e) {
+            throw new LevelFormatException("failed reading block definitions: "
+                    + e.getMessage(), lineNumber, 1);
+        }
+    }
+
     /**
      * reset this members.
      */
@@ -163,63 +313,117 @@ public class LevelSpecificationReader {
     /**
      * Set the matching property value from string.
      *
-     * @param property string of property key and value.
+     * @param property   string of property key and value.
+     * @param lineNumber the property line number.
+     * @throws LevelFormatException if the property is malformed.
      */
-    private void setPropertyValueFromString(String property) {
-        String[] keyAndValue = property.split(":");
-        String key = keyAndValue[0];
-        String value = keyAndValue[1];
+    private void setPropertyValueFromString(String property, int lineNumber) {
+        int separator = property.indexOf(':');
+        if (separator == -1) {
+            throw new LevelFormatException("expected key:value but found: " + property.trim(),
+                    lineNumber, 1);
+        }
+
+        String key = property.substring(0, separator).trim();
+        String value = property.substring(separator + 1);
+        int column = separator + 2;
 
         switch (key) {
             case "level_name":
                 this.levelName = value;
                 break;
             case "ball_velocities":
-                String[] splittedVelocities = value.split(" ");
-                this.velocities = velocitiesFromString(splittedVelocities);
+                this.velocities = velocitiesFromString(value, lineNumber, column);
                 break;
             case "background":
                 this.background = backgroundFromString(value);
+                if (this.background == null) {
+                    throw new LevelFormatException("unknown background: " + value,
+                            lineNumber, column);
+                }
                 break;
             case "paddle_speed":
-                this.paddleSpeed = Integer.parseInt(value);
+                this.paddleSpeed = parseInt(value, lineNumber, column);
                 break;
             case "paddle_width":
-                this.paddleWidth = Integer.parseInt(value);
+                this.paddleWidth = parseInt(value, lineNumber, column);
                 break;
             case "block_definitions":
-                this.blocksDefFile = value;
+                this.blocksDefFile = value.trim();
                 break;
             case "blocks_start_x":
-                this.startX = Integer.parseInt(value);
+                this.startX = parseInt(value, lineNumber, column);
                 break;
             case "blocks_start_y":
-                this.startY = Integer.parseInt(value);
+                this.startY = parseInt(value, lineNumber, column);
                 break;
             case "row_height":
-                this.rowHeight = Integer.parseInt(value);
+                this.rowHeight = parseInt(value, lineNumber, column);
                 break;
             case "num_blocks":
-                this.numOfBlocks = Integer.parseInt(value);
+                this.numOfBlocks = parseInt(value, lineNumber, column);
                 break;
             default:
             break;
         }
     }
 
+    /**
+     * Return the number a property value holds.
+     *
+     * @param value      the property value.
+     * @param lineNumber the property line number.
+     * @param column     the value column.
+     * @return the value number.
+     * @throws LevelFormatException if the value is not a number.
+     */
+    private static int parseInt(String value, int lineNumber, int column) {
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new LevelFormatException("expected a number but found: " + value.trim(),
+                    lineNumber, column);
+        }
+    }
+
     /**
      * Return a list of velocities from string.
      *
-     * @param velocitiesArray string array of velocities.
+     * @param value      space separated velocities, each an angle and a
+     *                   speed separated by a comma.
+     * @param lineNumber the velocities line number.
+     * @param column     the value column.
      * @return list of velocities.
+     * @throws LevelFormatException if a velocity is malformed.
      */
-    private List<Velocity> velocitiesFromString(String[] velocitiesArray) {
+    private List<Velocity> velocitiesFromString(String value, int lineNumber, int column) {
         List<Velocity> velocityList = new ArrayList<>();
+        int start = 0;
+
+        while (start < value.length()) {
+            int end = value.indexOf(' ', start);
+            if (end == -1) {
+                end = value.length();
+            }
 
-        for (String velo : velocitiesArray) {
-            int angle = Integer.parseInt(velo.split(",")[0]);
-            int speed = Integer.parseInt(velo.split(",")[1]);
-            velocityList.add(Velocity.fromAngleAndSpeed(angle, speed));
+            String velo = value.substring(start, end);
+            if (!velo.isEmpty()) {
+                int comma = velo.indexOf(',');
+                if (comma == -1) {
+                    throw new LevelFormatException("expected angle,speed but found: " + velo,
+                            lineNumber, column + start);
+                }
+
+                int angle = parseInt(velo.substring(0, comma), lineNumber, column + start);
+                int speed = parseInt(velo.substring(comma + 1), lineNumber, column + start + comma + 1);
+                velocityList.add(Velocity.fromAngleAndSpeed(angle, speed));
+            }
+
+            start = end + 1;
+        }
+
+        if (velocityList.isEmpty()) {
+            throw new LevelFormatException("expected ball velocities", lineNumber, column);
         }
 
         return velocityList;
@@ -232,49 +436,37 @@ public class LevelSpecificationReader {
      * @return background sprite.
      */
     private Background backgroundFromString(String backgroundString) {
-        if (backgroundString.contains("image")) {
-            return new Background(ColorsParser.imageFromString(backgroundString));
-        } else if (backgroundString.contains("color")) {
-            Color color = ColorsParser.colorFromString(backgroundString);
-            return new Background(color);
+        Fill fill = ColorsParser.fillFromString(backgroundString);
+        if (fill == null) {
+            return null;
         }
 
-        return null;
+        return new Background(fill);
     }
 
     /**
-     * Create and add block from string.
+     * Create and add the blocks of a row of block symbols, and move to
+     * the next row.
      *
-     * @param blocksInfo the block information.
+     * @param line    the row symbols.
      * @param factory return matching block by symbol.
      */
-    private void createAndAddBlocks(String blocksInfo,
-                                    BlocksFromSymbolsFactory factory) {
-
-        String[] lines = blocksInfo.split("\n");
-
-        for (String line : Arrays.copyOfRange(lines, 1, lines.length)) {
-
-            if (line.equals("END_BLOCKS")) {
-                break;
+    private void addBlocksRow(String line, BlocksFromSymbolsFactory factory) {
+
+        int lineStartX = this.startX;
+
+        for (int i = 0; i < line.length(); i++) {
+            char symbol = line.charAt(i);
+            if (factory.isSpaceSymbol(symbol)) {
+                lineStartX += factory.getSpaceWidth(symbol);
+            } else if (factory.isBlockSymbol(symbol)) {
+                Block blockToAdd = factory.getBlock(symbol,
+                        lineStartX, this.startY);
+                this.blocks.add(blockToAdd);
+                lineStartX += factory.getBlockWidth(symbol);
             }
-
-            int lineStartX = this.startX;
-
-            for (int i = 0; i < line.length(); i++) {
-                String symbol = line.substring(i, i + 1);
-                if (factory.isSpaceSymbol(symbol)) {
-                    lineStartX += factory.getSpaceWidth(symbol);
-                } else if (factory.isBlockSymbol(symbol)) {
-                    Block blockToAdd = factory.getBlock(symbol,
-                            lineStartX, this.startY);
-                    this.blocks.add(blockToAdd);
-                    lineStartX += factory.getBlockWidth(symbol);
-                }
-            }
-
-            this.startY += this.rowHeight;
         }
 
+        this.startY += this.rowHeight;
     }
 }
@@ -0,0 +1,385 @@
+package score;
+
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * A high-scores file kept as an append-only log of fixed size records.
+ * Every score that enters the table is appended as a single record, so
+ * adding a score never rewrites the file, and a record cut short by a
+ * crash is ignored on load. Reading the log replays its records into a
+ * table, which keeps only the highest of them, so the log is compacted
+ * to the table scores once it holds several times more records than the
+ * table.
+ *
+ * The header and every record carry a CRC32. A last record that does
+ * not match its checksum was cut short by a crash and is ignored, and
+ * any other record that does not match fails the read. Appends are
+ * forced to the disk. A compacted log is written to a temporary file
+ * that is forced to the disk and then renamed over the log, so a crash
+ * leaves either the old log or the new one; the old log is first copied
+ * to a backup file, that is read if the log itself cannot be. The backup
+ * is forced to the disk as well, and so is the directory after every
+ * file is created or renamed in it, where the platform allows it.
+ *
+ * The file layout (big endian):
+ * <pre>
+ * int magic, short version, short record size, int table size,
+ *     int CRC32 of the header before it
+ * per record: int score, short name length, name UTF-8 bytes padded
+ *     with zeros to NAME_BYTES, int CRC32 of the record before it
+ * </pre>
+ *
+ * @author Shahaf Mordechay
+ */
+public class HighScoresLog {
+
+    // file format
+    public static final int MAGIC = 0x424B4853;
+    public static final short VERSION = 2;
+    public static final int NAME_BYTES = 54;
+    public static final int RECORD_SIZE = 4 + 2 + NAME_BYTES + 4;
+    public static final int HEADER_SIZE = 4 + 2 + 2 + 4 + 4;
+
+    // the number of records, in table sizes, the log is compacted at
+    private static final int COMPACT_RATIO = 4;
+
+    // files next to the log
+    private static final String TEMP_SUFFIX = ".tmp";
+    private static final String BACKUP_SUFFIX = ".bak";
+
+    // members
+    private File file;
+    private int records;
+
+    /**
+     * Constructs the log of the given file.
+     *
+     * @param file the high-scores file.
+     */
+    public HighScoresLog(File file) {
+        this.file = file;
+        this.records = 0;
+    }
+
+    /**
+     * Tell if the given file starts with a high-scores log header.
+     *
+     * @param file the file to check.
+     * @return true if the file is a high-scores log.
+     */
+    public static boolean isLog(File file) {
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            return in.readInt() == MAGIC;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Return the backup file of the given log, that holds the log as it
+     * was before it was last compacted.
+     *
+     * @param file the high-scores file.
+     * @return the backup file.
+     */
+    public static File backupOf(File file) {
+        return new File(file.getPath() + BACKUP_SUFFIX);
+    }
+
+    /**
+     * Return the number of records in the log, as of the last time it was
+     * read or written.
+     *
+     * @return the log records count.
+     */
+    public int getRecords() {
+        return this.records;
+    }
+
+    /**
+     * Read the log into a new table of the size in its header.
+     * A last record that is cut short or does not match its checksum is
+     * ignored.
+     *
+     * @return the table of the log scores.
+     * @throws IOException if the file cannot be read, is not a log, or a
+     *                     record before the last does not match its
+     *                     checksum.
+     */
+    public HighScoresTable read() throws IOException {
+        ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(this.file.toPath()));
+
+        try {
+            readHeader(in);
+            HighScoresTable table = new HighScoresTable(in.getInt());
+
+            if (in.getInt() != checksum(in, 0, HEADER_SIZE - 4)) {
+                throw new IOException("High-scores log header does not match its checksum");
+            }
+
+            this.records = 0;
+
+            while (in.remaining() >= RECORD_SIZE) {
+                ScoreInfo score = readRecord(in);
+                if (score == null) {
+                    if (in.hasRemaining()) {
+                        throw new IOException("High-scores record " + (this.records + 1)
+                                + " does not match its checksum");
+                    }
+                    break;
+                }
+
+                table.add(score);
+                this.records++;
+            }
+
+            return table;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("High-scores log is truncated", e);
+        }
+    }
+
+    /**
+     * Append the given score to the log, and compact the log if it holds
+     * too many records for the given table.
+     * The file is replaced by the table scores instead if it is not the
+     * log this object last read or wrote: it is not a log yet, or its last
+     * record was cut short.
+     *
+     * @param score the score that entered the table.
+     * @param table the table, with the score added.
+     * @throws IOException if the file cannot be written.
+     */
+    public void append(ScoreInfo score, HighScoresTable table) throws IOException {
+        long length = HEADER_SIZE + (long) this.records * RECORD_SIZE;
+        if (!isLog(this.file) || this.file.length() != length
+                || this.records >= table.size() * COMPACT_RATIO) {
+            this.rewrite(table);
+            return;
+        }
+
+        ByteBuffer out = ByteBuffer.allocate(RECORD_SIZE);
+        writeRecord(out, score);
+        out.flip();
+
+        try (FileChannel channel = FileChannel.open(this.file.toPath(),
+                StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(false);
+        }
+
+        this.records++;
+    }
+
+    /**
+     * Replace the log by the scores of the given table, highest first.
+     * The new log is forced to the disk before it replaces the old one,
+     * and the old log, if it has a valid header, is kept as the backup,
+     * that is forced to the disk before the rename too.
+     *
+     * @param table the table to write.
+     * @throws IOException if the file cannot be written.
+     */
+    public void rewrite(HighScoresTable table) throws IOException {
+        List<ScoreInfo> scores = new ArrayList<>(table.getHighScores());
+
+        ByteBuffer out = ByteBuffer.allocate(HEADER_SIZE + scores.size() * RECORD_SIZE);
+        out.putInt(MAGIC);
+        out.putShort(VERSION);
+        out.putShort((short) RECORD_SIZE);
+        out.putInt(table.size());
+        out.putInt(checksum(out, 0, HEADER_SIZE - 4));
+
+        for (ScoreInfo score : scores) {
+            writeRecord(out, score);
+        }
+        out.flip();
+
+        Path path = this.file.toPath();
+        Path temp = new File(this.file.getPath() + TEMP_SUFFIX).toPath();
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (out.hasRemaining()) {
+                channel.write(out);
+            }
+            channel.force(true);
+        }
+
+        if (hasValidHeader(this.file)) {
+            copy(path, backupOf(this.file).toPath());
+        }
+        forceDirectory(path);
+
+        try {
+            Files.move(temp, path, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+        forceDirectory(path);
+
+        this.records = scores.size();
+    }
+
+    /**
+     * Copy a file over another one, and force the copy to the disk.
+     *
+     * @param from the file to copy.
+     * @param to   the file to copy to.
+     * @throws IOException if the file cannot be copied.
+     */
+    private static void copy(Path from, Path to) throws IOException {
+        try (FileChannel in = FileChannel.open(from, StandardOpenOption.READ);
+             FileChannel out = FileChannel.open(to, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            long size = in.size();
+            long position = 0;
+            while (position < size) {
+                position += in.transferTo(position, size - position, out);
+            }
+            out.force(true);
+        }
+    }
+
+    /**
+     * Force the directory of the given file to the disk, so the files
+     * created or renamed in it are kept by a crash.
+     * Some platforms cannot open a directory, and their renames are not
+     * forced.
+     *
+     * @param file a file in the directory.
+     */
+    private static void forceDirectory(Path file) {
+        Path directory = file.toAbsolutePath().getParent();
+        if (directory == null) {
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(directory, StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            return;
+        }
+    }
+
+    /**
+     * Read a log header up to the table size, and check it is a header of
+     * the current version.
+     *
+     * @param in the log content.
+     * @throws IOException if the content is not a log.
+     */
+    private static void readHeader(ByteBuffer in) throws IOException {
+        int magic = in.getInt();
+        short version = in.getShort();
+        short recordSize = in.getShort();
+
+        if (magic != MAGIC || version != VERSION || recordSize != RECORD_SIZE) {
+            throw new IOException("Not a high-scores log of version " + VERSION);
+        }
+    }
+
+    /**
+     * Tell if the given file starts with a valid log header.
+     *
+     * @param file the file to check.
+     * @return true if the file header is of the current version and
+     *         matches its checksum.
+     */
+    private static boolean hasValidHeader(File file) {
+        byte[] header = new byte[HEADER_SIZE];
+        try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+            in.readFully(header);
+
+            ByteBuffer buffer = ByteBuffer.wrap(header);
+            readHeader(buffer);
+            buffer.getInt();
+            return buffer.getInt() == checksum(buffer, 0, HEADER_SIZE - 4);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Write a single record.
+     * A name longer than NAME_BYTES in UTF-8 is cut at the last whole
+     * character that fits.
+     *
+     * @param out   the buffer to write to.
+     * @param score the score to write.
+     */
+    private static void writeRecord(ByteBuffer out, ScoreInfo score) {
+        String name = score.getName() == null ? "" : score.getName();
+        byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(bytes.length, NAME_BYTES);
+
+        // never cut inside a character, whose following bytes are 10xxxxxx
+        while (length < bytes.length && length > 0 && (bytes[length] & 0xC0) == 0x80) {
+            length--;
+        }
+
+        int start = out.position();
+        out.putInt(score.getScore());
+        out.putShort((short) length);
+        out.put(bytes, 0, length);
+        out.put(new byte[NAME_BYTES - length]);
+        out.putInt(checksum(out, start, RECORD_SIZE - 4));
+    }
+
+    /**
+     * Read a single record, that is whole in the given buffer.
+     *
+     * @param in the log content.
+     * @return the record score, null if the record is malformed or does
+     *         not match its checksum.
+     */
+    private static ScoreInfo readRecord(ByteBuffer in) {
+        int start = in.position();
+        int score = in.getInt();
+        int length = in.getShort() & 0xFFFF;
+        int nameStart = in.position();
+        in.position(nameStart + NAME_BYTES);
+
+        if (in.getInt() != checksum(in, start, RECORD_SIZE - 4)) {
+            return null;
+        }
+
+        if (length > NAME_BYTES) {
+            return null;
+        }
+
+        return new ScoreInfo(new String(in.array(), nameStart, length, StandardCharsets.UTF_8), score);
+    }
+
+    /**
+     * Return the CRC32 of the given bytes of a buffer.
+     *
+     * @param buffer the buffer, backed by an array.
+     * @param start  the index of the first byte.
+     * @param length the number of bytes.
+     * @return the bytes checksum.
+     */
+    private static int checksum(ByteBuffer buffer, int start, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), start, length);
+        return (int) crc.getValue();
+    }
+}
@@ -7,23 +7,41 @@ import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.ObjectOutputStream;
-import java.io.FileOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.PriorityQueue;
 
 /**
  * Table to store the historic high scores.
  * Saving and loading the table to a file.
+ * The scores are kept in a min-heap bounded by the table size, so the
+ * lowest score is always at hand to tell if a new score is high enough,
+ * and are sorted only when they are asked for after a change.
+ * The table is saved as a HighScoresLog, by a HighScoresWriter on a
+ * background thread; a table saved by Java serialization is still loaded,
+ * and is replaced by a log the first time a score is added to it.
  *
  * @author Shahaf Mordechay
  */
 public class HighScoresTable implements Serializable {
 
+    // the version of the tables saved by Java serialization
+    private static final long serialVersionUID = 2151085528742067797L;
+
+    // the high scores file
+    private static final String FILE_NAME = "highscores";
+
+    // the size of a table that is not loaded from a file
+    private static final int DEFAULT_SIZE = 10;
+
     // members
     private int maxSize;
     private List<ScoreInfo> highScores;
+    private transient PriorityQueue<RankedScore> heap;
+    private transient long added;
+    private transient boolean sorted;
 
     /**
      * Create an empty high-scores table with the specified size.
@@ -33,10 +51,20 @@ public class HighScoresTable implements Serializable {
     public HighScoresTable(int size) {
         this.maxSize = size;
         this.highScores = new ArrayList<>();
+        this.heap = new PriorityQueue<>(Math.max(size, 1), new Comparator<RankedScore>() {
+            @Override
+            public int compare(RankedScore first, RankedScore second) {
+                return lowestFirst(first, second);
+            }
+        });
+        this.added = 0;
+        this.sorted = true;
     }
 
     /**
      * Add high-score to table.
+     * When the table is full, the lowest score is replaced, and of equal
+     * lowest scores the one added last.
      *
      * @param score the score to add.
      */
@@ -45,11 +73,12 @@ public class HighScoresTable implements Serializable {
             return;
         }
 
-        if (this.highScores.size() < maxSize) {
-            this.highScores.add(score);
-        } else if (this.highScores.size() == maxSize) {
-            this.highScores.set(maxSize - 1, score);
+        if (this.heap.size() == this.maxSize) {
+            this.heap.poll();
         }
+
+        this.heap.add(new RankedScore(score, this.added++));
+        this.sorted = false;
     }
 
     /**
@@ -62,7 +91,8 @@ public class HighScoresTable implements Serializable {
     }
 
     /**
-     * Return the current high scores from highest to lowest.
+     * Return the current high scores from highest to lowest, of equal
+     * scores the one added first.
      *
      * @return current high scores.
      */
@@ -94,7 +124,20 @@ public class HighScoresTable implements Serializable {
      * Clears the table.
      */
     public void clear() {
+        this.heap.clear();
         this.highScores.clear();
+        this.sorted = true;
+    }
+
+    /**
+     * Return a copy of this table.
+     *
+     * @return a new table with the same size and scores.
+     */
+    public HighScoresTable copy() {
+        HighScoresTable table = new HighScoresTable(this.maxSize);
+        table.addAll(this);
+        return table;
     }
 
     /**
@@ -102,91 +145,70 @@ public class HighScoresTable implements Serializable {
      * Current table data is cleared.
      *
      * @param filename     the file to load from.
-     * @throws IOException file loading exception.
      */
-    public void load(File filename) throws IOException {
-
+    public void load(File filename) {
         this.clear();
-
-        ObjectInputStream inputStream = null;
-
-        try {
-
-            inputStream = new ObjectInputStream(
-                            new FileInputStream(filename));
-
-            HighScoresTable table = (HighScoresTable) inputStream.readObject();
-            this.highScores = table.getHighScores();
-
-        } catch (FileNotFoundException e) { // Can't find file to open
-            System.err.println("Unable to find file: " + filename);
-            return;
-        } catch (ClassNotFoundException e) { // The class in the stream is unknown to the JVM
-            System.err.println("Unable to find class for object in file: " + filename);
-            return;
-        } catch (IOException e) { // Some other problem
-            System.err.println("Failed reading object");
-            e.printStackTrace(System.err);
-            return;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                System.err.println("Failed closing file: " + filename);
-            }
-        }
+        this.addAll(loadFromFile(filename));
     }
 
     /**
      * Save table data to the specified file.
+     * The table is written on a background thread, and this method
+     * returns right away.
      *
      * @param filename     the file to save to.
-     * @throws IOException file writing exception.
      */
-    public void save(File filename) throws IOException {
-
-        ObjectOutputStream outputStream = null;
-
-        try {
-            outputStream = new ObjectOutputStream(
-                            new FileOutputStream(filename));
-
-            outputStream.writeObject(this);
-        } catch (IOException e) {
-            System.err.println("Failed saving object");
-            e.printStackTrace(System.err);
-        } finally {
-            try {
-                if (outputStream != null) {
-                    outputStream.close();
-                }
-            } catch (IOException e) {
-                System.err.println("Failed closing file: " + filename);
-            }
-        }
+    public void save(File filename) {
+        HighScoresWriter.of(filename).save(this);
     }
 
     /**
      * Read a table from file and return it.
-     * If the file does not exist, or there is a problem with
-     * reading it, an empty table is returned.
+     * A table saved and not written yet is returned as it was saved. If
+     * the file does not exist or cannot be read, its backup is read, and
+     * if there is no backup either, an empty table is returned.
      *
      * @param filename the file to load from.
-     * @return high scores table or null.
+     * @return high scores table, never null.
      */
     public static HighScoresTable loadFromFile(File filename) {
 
-        ObjectInputStream inputStream = null;
+        HighScoresTable table = HighScoresWriter.of(filename).latest();
+        if (table != null) {
+            return table;
+        }
 
-        try {
+        if (filename.exists()) {
+            table = readFile(filename);
+        }
 
-            inputStream = new ObjectInputStream(
-                    new FileInputStream(filename));
+        File backup = HighScoresLog.backupOf(filename);
+        if (table == null && backup.exists()) {
+            System.err.println("Loading high-scores backup: " + backup);
+            table = readFile(backup);
+        }
+
+        if (table == null) {
+            table = new HighScoresTable(DEFAULT_SIZE);
+        }
 
-            return (HighScoresTable) inputStream.readObject();
+        return table;
+    }
+
+    /**
+     * Read a table from a high-scores log or from a table saved by Java
+     * serialization.
+     *
+     * @param filename the file to read.
+     * @return high scores table, null if the file cannot be read.
+     */
+    private static HighScoresTable readFile(File filename) {
+        try {
+            if (HighScoresLog.isLog(filename)) {
+                return new HighScoresLog(filename).read();
+            }
 
+            return loadSerialized(filename);
         } catch (FileNotFoundException e) { // Can't find file to open
             System.err.println("Unable to find file: " + filename);
             return null;
@@ -194,17 +216,9 @@ public class HighScoresTable implements Serializable {
             System.err.println("Unable to find class for object in file: " + filename);
             return null;
         } catch (IOException e) { // Some other problem
-            System.err.println("Failed reading object");
+            System.err.println("Failed reading high-scores table");
             e.printStackTrace(System.err);
             return null;
-        } finally {
-            try {
-                if (inputStream != null) {
-                    inputStream.close();
-                }
-            } catch (IOException e) {
-                System.err.println("Failed closing file: " + filename);
-            }
         }
     }
 
@@ -215,60 +229,147 @@ public class HighScoresTable implements Serializable {
      * @return true if the score is high enough.
      */
     private boolean isHighEnough(int score) {
-
-        if (this.getHighScores().isEmpty()) {
+        if (this.heap.size() < this.maxSize) {
             return true;
         }
 
-        this.sortByScore();
-        int last = this.highScores.size() - 1;
-        int lowestScore = this.highScores.get(last).getScore();
-
-        return (this.highScores.size() == this.maxSize && score > lowestScore)
-                || this.highScores.size() < this.maxSize;
+        return this.maxSize > 0 && score > this.heap.peek().getScore().getScore();
     }
 
     /**
      * Add the given score to the table.
+     * The table is loaded from the high scores file first, and a score
+     * that enters it is appended to the file on a background thread.
      *
      * @param score  the score to add.
      * @param dialog the dialog to write player name.
      */
     public void addToTable(int score, DialogManager dialog) {
-        File highScoresFile = new File("highscores");
-        try {
-            if (!highScoresFile.exists()) {
-                this.save(highScoresFile);
-            }
-        } catch (IOException e) {
-            System.err.println("Failed saving object");
-            e.printStackTrace(System.err);
-        }
+        File highScoresFile = new File(FILE_NAME);
 
-        try {
-            this.load(highScoresFile);
-        } catch (IOException e) {
-            System.out.println("Failed loading high-scores table");
-        }
+        this.clear();
+        this.addAll(loadFromFile(highScoresFile));
 
         if (isHighEnough(score)) {
             String name = dialog.showQuestionDialog("High Score", "Enter your name:", "");
             ScoreInfo info = new ScoreInfo(name, score);
             this.add(info);
-        }
 
-        try {
-            this.save(highScoresFile);
-        } catch (IOException e) {
-            System.out.println("Failed to save high-scores table");
+            HighScoresWriter.of(highScoresFile).append(info, this);
         }
     }
 
+    /**
+     * Add the scores of the given table, highest first.
+     *
+     * @param table the table to add the scores of.
+     */
+    private void addAll(HighScoresTable table) {
+        for (ScoreInfo score : table.getHighScores()) {
+            this.add(score);
+        }
+    }
 
     /**
-     * Sort the high-scores table from highest to lowest.
+     * Sort the high-scores table from highest to lowest, if it changed
+     * since it was last sorted.
      */
     private void sortByScore() {
-        this.highScores.sort(new ScoreComperator());
+        if (this.sorted) {
+            return;
+        }
+
+        List<RankedScore> ranked = new ArrayList<>(this.heap);
+        ranked.sort(new Comparator<RankedScore>() {
+            @Override
+            public int compare(RankedScore first, RankedScore second) {
+                return lowestFirst(second, first);
+            }
+        });
+
+        this.highScores.clear();
+        for (RankedScore rankedScore : ranked) {
+            this.highScores.add(rankedScore.getScore());
+        }
+
+        this.sorted = true;
+    }
+
+    /**
+     * Compare two scores so the lower comes first, and of equal scores
+     * the one added last.
+     *
+     * @param first  the first score.
+     * @param second the second score.
+     * @return negative if the first comes first, positive if the second does.
+     */
+    private static int lowestFirst(RankedScore first, RankedScore second) {
+        int byScore = Integer.compare(first.getScore().getScore(), second.getScore().getScore());
+        if (byScore != 0) {
+            return byScore;
+        }
+
+        return Long.compare(second.getOrder(), first.getOrder());
+    }
+
+    /**
+     * Read a table saved by Java serialization.
+     *
+     * @param filename the file to load from.
+     * @return the table scores, in a new table.
+     * @throws IOException            if the file cannot be read.
+     * @throws ClassNotFoundException if the file holds an unknown class.
+     */
+    private static HighScoresTable loadSerialized(File filename)
+            throws IOException, ClassNotFoundException {
+        try (ObjectInputStream inputStream = new ObjectInputStream(new FileInputStream(filename))) {
+            HighScoresTable serialized = (HighScoresTable) inputStream.readObject();
+            HighScoresTable table = new HighScoresTable(serialized.maxSize);
+
+            for (ScoreInfo score : serialized.highScores) {
+                table.add(score);
+            }
+
+            return table;
+        }
+    }
+
+    /**
+     * A score in the table, and the order it was added in.
+     */
+    private static class RankedScore {
+
+        // members
+        private ScoreInfo score;
+        private long order;
+
+        /**
+         * Constructs a ranked score.
+         *
+         * @param score the score.
+         * @param order the number of scores added to the table before it.
+         */
+        RankedScore(ScoreInfo score, long order) {
+            this.score = score;
+            this.order = order;
+        }
+
+        /**
+         * Return the score.
+         *
+         * @return the score.
+         */
+        public ScoreInfo getScore() {
+            return this.score;
+        }
+
+        /**
+         * Return the order the score was added in.
+         *
+         * @return the score order.
+         */
+        public long getOrder() {
+            return this.order;
+        }
     }
 }
@@ -0,0 +1,193 @@
+package score;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes the high-scores of a file on a background thread, so the game
+ * never waits for the disk.
+ * A table handed to the writer is copied, and written some time later.
+ * Tables handed over before the previous one was written are coalesced:
+ * only the last of them is written, compacting the log if more than a
+ * single score was added since the last write. Until a table is written,
+ * reading the file through latest gets the table instead.
+ * Writes left when the game exits are done before it ends.
+ *
+ * @author Shahaf Mordechay
+ */
+public class HighScoresWriter {
+
+    // the most time the game waits on exit for the writes left
+    private static final long EXIT_TIMEOUT_SECONDS = 5;
+
+    // one background thread for all the writers, that does not keep the game running
+    private static final ExecutorService EXECUTOR = Executors.newSingleThreadExecutor(
+            new ThreadFactory() {
+                @Override
+                public Thread newThread(Runnable r) {
+                    Thread thread = new Thread(r, "high-scores-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    // the writer of every file
+    private static final Map<File, HighScoresWriter> WRITERS = new HashMap<>();
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(new Runnable() {
+            @Override
+            public void run() {
+                EXECUTOR.shutdown();
+                try {
+                    EXECUTOR.awaitTermination(EXIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }, "high-scores-flush"));
+    }
+
+    // members
+    private HighScoresLog log;
+    private HighScoresTable pending;
+    private ScoreInfo pendingScore;
+    private boolean rewrite;
+    private HighScoresTable writing;
+
+    /**
+     * Constructs the writer of the given file.
+     *
+     * @param file the high-scores file.
+     */
+    private HighScoresWriter(File file) {
+        this.log = new HighScoresLog(file);
+        this.pending = null;
+        this.pendingScore = null;
+        this.rewrite = false;
+        this.writing = null;
+    }
+
+    /**
+     * Return the writer of the given file.
+     *
+     * @param file the high-scores file.
+     * @return the file writer.
+     */
+    public static HighScoresWriter of(File file) {
+        synchronized (WRITERS) {
+            File key = file.getAbsoluteFile();
+            HighScoresWriter writer = WRITERS.get(key);
+            if (writer == null) {
+                writer = new HighScoresWriter(key);
+                WRITERS.put(key, writer);
+            }
+
+            return writer;
+        }
+    }
+
+    /**
+     * Write the given table over the file.
+     *
+     * @param table the table to write.
+     */
+    public synchronized void save(HighScoresTable table) {
+        this.rewrite = true;
+        this.schedule(table);
+    }
+
+    /**
+     * Append the given score to the file.
+     *
+     * @param score the score that entered the table.
+     * @param table the table, with the score added.
+     */
+    public synchronized void append(ScoreInfo score, HighScoresTable table) {
+        if (this.pending != null) {
+            this.rewrite = true;
+        }
+
+        this.pendingScore = score;
+        this.schedule(table);
+    }
+
+    /**
+     * Return a copy of the last table handed to the writer, if it is not
+     * written yet.
+     *
+     * @return the table that is not written yet, null if every table is
+     *         written.
+     */
+    public synchronized HighScoresTable latest() {
+        if (this.pending != null) {
+            return this.pending.copy();
+        }
+
+        if (this.writing != null) {
+            return this.writing.copy();
+        }
+
+        return null;
+    }
+
+    /**
+     * Keep a copy of the given table to write, and start writing it
+     * unless a write is already waiting to start.
+     *
+     * @param table the table to write.
+     */
+    private void schedule(HighScoresTable table) {
+        boolean waiting = this.pending != null;
+        this.pending = table.copy();
+
+        if (!waiting) {
+            EXECUTOR.execute(new Runnable() {
+                @Override
+                public void run() {
+                    write();
+                }
+            });
+        }
+    }
+
+    /**
+     * Write the last table handed to the writer, on the background thread.
+     */
+    private void write() {
+        HighScoresTable table;
+        ScoreInfo score;
+
+        synchronized (this) {
+            table = this.pending;
+            score = this.rewrite ? null : this.pendingScore;
+            this.writing = table;
+            this.pending = null;
+            this.pendingScore = null;
+            this.rewrite = false;
+        }
+
+        try {
+            if (score != null) {
+                this.log.append(score, table);
+            } else {
+                this.log.rewrite(table);
+            }
+        } catch (IOException e) {
+            System.err.println("Failed saving high-scores table");
+            e.printStackTrace(System.err);
+        } finally {
+            synchronized (this) {
+                if (this.writing == table) {
+                    this.writing = null;
+                }
+            }
+        }
+    }
+}
@@ -11,6 +11,10 @@ import java.io.Serializable;
  */
 public class ScoreInfo implements Serializable {
 
+    // the version of the scores saved by Java serialization, as computed
+    // before it was declared, so tables saved then are still read
+    private static final long serialVersionUID = -2796283078367421260L;
+
     // members
     private String name;
     private int score;
@@ -0,0 +1,71 @@
+package simulation;
+
+import levels.Level;
+import levels.LevelInformation;
+import other.Velocity;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A point of a level balancing grid: how much the balls speed, the paddle
+ * speed and the paddle width of a level are scaled by.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BalanceParameters {
+
+    // members
+    private double ballSpeedScale;
+    private double paddleSpeedScale;
+    private double paddleWidthScale;
+
+    /**
+     * Constructs new balancing parameters.
+     *
+     * @param ballSpeedScale   the scale of the initial balls velocities.
+     * @param paddleSpeedScale the scale of the paddle speed.
+     * @param paddleWidthScale the scale of the paddle width.
+     */
+    public BalanceParameters(double ballSpeedScale, double paddleSpeedScale,
+                             double paddleWidthScale) {
+        this.ballSpeedScale = ballSpeedScale;
+        this.paddleSpeedScale = paddleSpeedScale;
+        this.paddleWidthScale = paddleWidthScale;
+    }
+
+    /**
+     * Return a level like the given one with these parameters applied,
+     * and the balls turned by the given angle.
+     * The new level uses the given level blocks.
+     *
+     * @param level the level to change.
+     * @param angle the angle to turn the initial balls velocities by, in
+     *              degrees.
+     * @return the changed level.
+     */
+    public LevelInformation apply(LevelInformation level, double angle) {
+        double sin = Math.sin(Math.toRadians(angle));
+        double cos = Math.cos(Math.toRadians(angle));
+
+        List<Velocity> velocities = new ArrayList<>();
+        for (Velocity v : level.initialBallVelocities()) {
+            double dx = (v.getDx() * cos - v.getDy() * sin) * this.ballSpeedScale;
+            double dy = (v.getDx() * sin + v.getDy() * cos) * this.ballSpeedScale;
+            velocities.add(new Velocity(dx, dy));
+        }
+
+        int paddleSpeed = (int) Math.max(1, Math.round(level.paddleSpeed() * this.paddleSpeedScale));
+        int paddleWidth = (int) Math.max(1, Math.round(level.paddleWidth() * this.paddleWidthScale));
+
+        return new Level(velocities, paddleSpeed, paddleWidth, level.levelName(),
+                level.getBackground(), level.blocks());
+    }
+
+    @Override
+    public String toString() {
+        return "ball=" + this.ballSpeedScale
+                + " paddleSpeed=" + this.paddleSpeedScale
+                + " paddleWidth=" + this.paddleWidthScale;
+    }
+}
@@ -0,0 +1,119 @@
+package simulation;
+
+/**
+ * The outcome of the games of a level with some balancing parameters:
+ * how often and how fast the level is cleared, how often balls are lost,
+ * and how many hits the blocks take.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BalanceResult {
+
+    // members
+    private String levelName;
+    private BalanceParameters parameters;
+    private int games;
+    private int cleared;
+    private double clearSeconds;
+    private double playSeconds;
+    private int ballsLost;
+    private int hits;
+    private int blocks;
+    private int maxHits;
+
+    /**
+     * Constructs the result of a single game.
+     *
+     * @param parameters the balancing parameters of the game.
+     * @param result     the game outcome.
+     * @param ballsLost  the number of balls that fell.
+     * @param hits       the block hits counted in the game.
+     * @param blocks     the number of blocks in the level.
+     */
+    public BalanceResult(BalanceParameters parameters, SimulationResult result,
+                         int ballsLost, BlockHitCounter hits, int blocks) {
+        this.levelName = result.getLevelName();
+        this.parameters = parameters;
+        this.games = 1;
+        this.cleared = result.isCleared() ? 1 : 0;
+        this.clearSeconds = result.isCleared() ? result.getSeconds() : 0;
+        this.playSeconds = result.getSeconds();
+        this.ballsLost = ballsLost;
+        this.hits = hits.getTotalHits();
+        this.blocks = blocks;
+        this.maxHits = hits.getMaxHits();
+    }
+
+    /**
+     * Add the games of another result of the same level and parameters
+     * to this result.
+     *
+     * @param other the result to add.
+     */
+    public void add(BalanceResult other) {
+        this.games += other.games;
+        this.cleared += other.cleared;
+        this.clearSeconds += other.clearSeconds;
+        this.playSeconds += other.playSeconds;
+        this.ballsLost += other.ballsLost;
+        this.hits += other.hits;
+        this.blocks += other.blocks;
+        this.maxHits = Math.max(this.maxHits, other.maxHits);
+    }
+
+    /**
+     * Return the number of games played.
+     *
+     * @return the games count.
+     */
+    public int getGames() {
+        return this.games;
+    }
+
+    /**
+     * Return the part of the games the level was cleared in.
+     *
+     * @return the clear rate, from 0 to 1.
+     */
+    public double getClearRate() {
+        return (double) this.cleared / this.games;
+    }
+
+    /**
+     * Return the average game time it took to clear the level.
+     *
+     * @return the average clear time in seconds, 0 if it was never cleared.
+     */
+    public double getClearTime() {
+        return this.cleared == 0 ? 0 : this.clearSeconds / this.cleared;
+    }
+
+    /**
+     * Return the number of balls lost in every minute of play.
+     *
+     * @return the ball loss rate.
+     */
+    public double getBallLossRate() {
+        return this.playSeconds == 0 ? 0 : this.ballsLost * 60 / this.playSeconds;
+    }
+
+    /**
+     * Return the average number of hits a block took.
+     *
+     * @return the hits per block.
+     */
+    public double getHitsPerBlock() {
+        return this.blocks == 0 ? 0 : (double) this.hits / this.blocks;
+    }
+
+    @Override
+    public String toString() {
+        return this.levelName + " [" + this.parameters + "]:"
+                + " games=" + this.games
+                + " cleared=" + String.format("%.0f%%", this.getClearRate() * 100)
+                + " clearTime=" + String.format("%.1fs", this.getClearTime())
+                + " ballLoss=" + String.format("%.2f/min", this.getBallLossRate())
+                + " hitsPerBlock=" + String.format("%.2f", this.getHitsPerBlock())
+                + " maxHits=" + this.maxHits;
+    }
+}
@@ -0,0 +1,204 @@
+package simulation;
+
+import collidables.Block;
+import game.GameFlow;
+import game.GameWorld;
+import levels.LevelInformation;
+import other.Counter;
+import readers.LevelSpecificationReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Plays the levels of a level definitions file many times with a grid of
+ * balancing parameters, on all the cores, and reports how every level
+ * plays with every parameters.
+ *
+ * Every game is a separate task that parses its own level and plays it
+ * in its own world, with its own counters, so the tasks share nothing
+ * but the levels texts.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BatchSimulator {
+
+    // simulation properties
+    private static final double DT = 1.0 / 60;
+    private static final int MAX_FRAMES = 60 * 60 * 10;
+
+    // the most degrees the balls of a game are turned by, except the first game
+    private static final double MAX_ANGLE = 10;
+
+    // default grid
+    private static final String DEFAULT_SCALES = "0.8,1,1.2";
+
+    // members
+    private ForkJoinPool pool;
+
+    /**
+     * Constructs a batch simulator that runs on the given number of threads.
+     *
+     * @param threads the number of games played at the same time.
+     */
+    public BatchSimulator(int threads) {
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Play every level the given number of times with every parameters.
+     *
+     * @param levelTexts the texts of the levels to play.
+     * @param grid       the balancing parameters to play with.
+     * @param games      the number of games of every level and parameters.
+     * @return the outcome of every level with every parameters, levels first.
+     * @throws InterruptedException if the waiting for the games is interrupted.
+     * @throws ExecutionException   if a game failed.
+     */
+    public List<BalanceResult> run(List<String> levelTexts, List<BalanceParameters> grid,
+                                   int games) throws InterruptedException, ExecutionException {
+        List<Callable<BalanceResult>> tasks = new ArrayList<>();
+
+        for (String levelText : levelTexts) {
+            for (BalanceParameters parameters : grid) {
+                for (int game = 0; game < games; game++) {
+                    final long seed = game;
+                    tasks.add(new Callable<BalanceResult>() {
+                        @Override
+                        public BalanceResult call() {
+                            return play(levelText, parameters, seed);
+                        }
+                    });
+                }
+            }
+        }
+
+        List<BalanceResult> results = new ArrayList<>();
+        List<Future<BalanceResult>> futures = this.pool.invokeAll(tasks);
+
+        for (int i = 0; i < futures.size(); i++) {
+            BalanceResult result = futures.get(i).get();
+            if (i % games == 0) {
+                results.add(result);
+            } else {
+                results.get(results.size() - 1).add(result);
+            }
+        }
+
+        return results;
+    }
+
+    /**
+     * Stop the threads of this simulator.
+     */
+    public void shutdown() {
+        this.pool.shutdown();
+    }
+
+    /**
+     * Play a single game of a level with a computer player.
+     *
+     * @param levelText  the level text.
+     * @param parameters the balancing parameters to play with.
+     * @param seed       the game number, every game but the first turns the
+     *                   balls by a random angle of its own.
+     * @return the game outcome.
+     */
+    public static BalanceResult play(String levelText, BalanceParameters parameters, long seed) {
+        double angle = 0;
+        if (seed != 0) {
+            angle = (new Random(seed).nextDouble() * 2 - 1) * MAX_ANGLE;
+        }
+
+        LevelInformation level = parameters.apply(
+                new LevelSpecificationReader().levelFromText(levelText), angle);
+
+        BlockHitCounter hits = new BlockHitCounter();
+        for (Block block : level.blocks()) {
+            block.addHitListener(hits);
+        }
+
+        HeadlessSimulator simulator = new HeadlessSimulator(DT, MAX_FRAMES);
+        GameWorld world = simulator.createWorld(level, new Counter(),
+                new Counter(GameFlow.PLAYER_LIVES));
+        SimulationResult result = simulator.run(world, new TrackingPaddleInput(world));
+
+        int ballsLost = level.numberOfBalls() * result.getTurns() - world.getRemainingBalls();
+        return new BalanceResult(parameters, result, ballsLost, hits, level.blocks().size());
+    }
+
+    /**
+     * Return the values of a comma separated list of numbers.
+     *
+     * @param s the list.
+     * @return the list numbers.
+     */
+    private static List<Double> parseScales(String s) {
+        List<Double> scales = new ArrayList<>();
+        for (String scale : s.split(",")) {
+            scales.add(Double.parseDouble(scale.trim()));
+        }
+
+        return scales;
+    }
+
+    /**
+     * Play a level definitions file with a grid of balancing parameters
+     * and print the outcome of every level with every parameters.
+     * Arguments: level definitions file, games of every level and
+     * parameters (default 10), comma separated ball speed scales, paddle
+     * speed scales and paddle width scales (default 0.8,1,1.2 each),
+     * threads (default all the cores).
+     *
+     * @param args arguments passed to main.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: BatchSimulator <level definitions> [games]"
+                    + " [ball scales] [paddle speed scales] [paddle width scales] [threads]");
+            return;
+        }
+
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        List<Double> ballScales = parseScales(args.length > 2 ? args[2] : DEFAULT_SCALES);
+        List<Double> speedScales = parseScales(args.length > 3 ? args[3] : DEFAULT_SCALES);
+        List<Double> widthScales = parseScales(args.length > 4 ? args[4] : DEFAULT_SCALES);
+        int threads = args.length > 5 ? Integer.parseInt(args[5])
+                : Runtime.getRuntime().availableProcessors();
+
+        List<BalanceParameters> grid = new ArrayList<>();
+        for (double ballScale : ballScales) {
+            for (double speedScale : speedScales) {
+                for (double widthScale : widthScales) {
+                    grid.add(new BalanceParameters(ballScale, speedScale, widthScale));
+                }
+            }
+        }
+
+        List<String> levelTexts = HeadlessSimulator.loadLevelTexts(args[0]);
+        BatchSimulator batch = new BatchSimulator(threads);
+        long start = System.nanoTime();
+
+        try {
+            for (BalanceResult result : batch.run(levelTexts, grid, games)) {
+                System.out.println(result);
+            }
+        } catch (InterruptedException | ExecutionException e) {
+            System.err.println("Failed running the batch");
+            e.printStackTrace(System.err);
+        } finally {
+            batch.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        int played = levelTexts.size() * grid.size() * games;
+        System.out.println("games played: " + played + " on " + threads + " threads, took "
+                + String.format("%.2f", seconds) + "s ("
+                + String.format("%.1f", played / seconds) + " games/s)");
+    }
+}
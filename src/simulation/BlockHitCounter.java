@@ -0,0 +1,63 @@
+package simulation;
+
+import collidables.Block;
+import hitlisteners.HitListener;
+import sprites.Ball;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Counts the hits of every block it listens to.
+ *
+ * @author Shahaf Mordechay
+ */
+public class BlockHitCounter implements HitListener {
+
+    // members
+    private Map<Block, Integer> hits;
+    private int totalHits;
+
+    /**
+     * Constructs a counter with no hits.
+     */
+    public BlockHitCounter() {
+        this.hits = new IdentityHashMap<>();
+        this.totalHits = 0;
+    }
+
+    /**
+     * Count a hit of the given block.
+     *
+     * @param beingHit the block that was hit.
+     * @param hitter   the ball that hit the block.
+     */
+    public void hitEvent(Block beingHit, Ball hitter) {
+        Integer blockHits = this.hits.get(beingHit);
+        this.hits.put(beingHit, blockHits == null ? 1 : blockHits + 1);
+        this.totalHits++;
+    }
+
+    /**
+     * Return the number of hits of all the blocks.
+     *
+     * @return the total hits.
+     */
+    public int getTotalHits() {
+        return this.totalHits;
+    }
+
+    /**
+     * Return the most hits a single block had.
+     *
+     * @return the most hits of a block.
+     */
+    public int getMaxHits() {
+        int max = 0;
+        for (int blockHits : this.hits.values()) {
+            max = Math.max(max, blockHits);
+        }
+
+        return max;
+    }
+}
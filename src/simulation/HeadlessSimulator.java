@@ -0,0 +1,200 @@
+package simulation;
+
+import collidables.PaddleInput;
+import game.GameFlow;
+import game.GameWorld;
+import levels.LevelInformation;
+import other.Counter;
+import readers.LevelSpecificationReader;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Runs level worlds without a screen, as fast as possible.
+ * Uses the same world, physics and turn rules as the game on the screen.
+ *
+ * @author Shahaf Mordechay
+ */
+public class HeadlessSimulator {
+
+    // simulated screen properties, same as the game window
+    public static final int WIDTH = 800;
+    public static final int HEIGHT = 600;
+    public static final int FRAME_SIZE = WIDTH / 32;
+
+    // default simulation properties
+    private static final double DEFAULT_DT = 1.0 / 60;
+    private static final int DEFAULT_MAX_FRAMES = 60 * 60 * 10;
+
+    // members
+    private double dt;
+    private int maxFrames;
+
+    /**
+     * Constructs a new simulator.
+     *
+     * @param dt        the amount of seconds of each simulated frame.
+     * @param maxFrames the maximal number of frames to simulate per level.
+     */
+    public HeadlessSimulator(double dt, int maxFrames) {
+        this.dt = dt;
+        this.maxFrames = maxFrames;
+    }
+
+    /**
+     * Create a new world of the given level, in the size of the game window.
+     *
+     * @param level         the level information.
+     * @param score         counter of the player game score.
+     * @param numberOfLives counter of the player lives.
+     * @return a new world of the level.
+     */
+    public GameWorld createWorld(LevelInformation level, Counter score, Counter numberOfLives) {
+        return new GameWorld(level, WIDTH, HEIGHT, FRAME_SIZE, score, numberOfLives);
+    }
+
+    /**
+     * Play the given world until its blocks are cleared, the player has
+     * no more lives or the frames limit is reached.
+     *
+     * @param world the world to play, not initialized yet.
+     * @param input the input that moves the paddle.
+     * @return the outcome of the level.
+     */
+    public SimulationResult run(GameWorld world, PaddleInput input) {
+        world.initialize(input);
+
+        int frames = 0;
+        int turns = 0;
+
+        while (world.getRemainingBlocks() != 0 && world.getLives() != 0
+                && frames < this.maxFrames) {
+
+            world.createBalls();
+            turns++;
+
+            while (!world.endTurnIfOver() && frames < this.maxFrames) {
+                world.step(this.dt);
+                frames++;
+            }
+        }
+
+        return new SimulationResult(world.getInformation().levelName(),
+                world.getRemainingBlocks() == 0, frames, frames * this.dt,
+                turns, world.getScore(), world.getLives());
+    }
+
+    /**
+     * Read the levels of a level definitions resource file.
+     *
+     * @param resource the level definitions file.
+     * @return the file levels information.
+     */
+    public static List<LevelInformation> loadLevels(String resource) {
+        List<LevelInformation> levels = new ArrayList<>();
+        List<Integer> firstLines = new ArrayList<>();
+        List<String> levelTexts = loadLevelTexts(resource, firstLines);
+
+        for (int i = 0; i < levelTexts.size(); i++) {
+            levels.add(new LevelSpecificationReader().levelFromText(levelTexts.get(i),
+                    firstLines.get(i)));
+        }
+
+        return levels;
+    }
+
+    /**
+     * Read the text of every level of a level definitions resource file,
+     * so each level can be parsed later with
+     * LevelSpecificationReader.levelFromText.
+     *
+     * @param resource the level definitions file.
+     * @return the file levels texts.
+     */
+    public static List<String> loadLevelTexts(String resource) {
+        return loadLevelTexts(resource, null);
+    }
+
+    /**
+     * Like loadLevelTexts, and also add the line number of every level
+     * first line in the file to the given list.
+     *
+     * @param resource   the level definitions file.
+     * @param firstLines gets the first line number of every level, from 1,
+     *                   in the levels order; may be null.
+     * @return the file levels texts.
+     */
+    public static List<String> loadLevelTexts(String resource, List<Integer> firstLines) {
+        InputStream is = ClassLoader.getSystemClassLoader().getResourceAsStream(resource);
+        Reader reader = null;
+
+        if (is == null) {
+            System.err.println("Unable to find file: " + resource);
+            return new ArrayList<>();
+        }
+
+        try {
+            reader = new InputStreamReader(is);
+            return new LevelSpecificationReader().levelTextsFromReader(reader, firstLines);
+        } finally {
+            try {
+                is.close();
+
+                if (reader != null) {
+                    reader.close();
+                }
+            } catch (IOException e) {
+                System.err.println("Failed closing file");
+            }
+        }
+    }
+
+    /**
+     * Play a level definitions file a number of times with a computer
+     * player and print the outcome of every level.
+     * Arguments: level definitions file, number of games (default 1).
+     *
+     * @param args arguments passed to main.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: HeadlessSimulator <level definitions> [games]");
+            return;
+        }
+
+        int games = args.length > 1 ? Integer.parseInt(args[1]) : 1;
+        HeadlessSimulator simulator = new HeadlessSimulator(DEFAULT_DT, DEFAULT_MAX_FRAMES);
+        long start = System.nanoTime();
+        int cleared = 0;
+        int played = 0;
+
+        for (int game = 0; game < games; game++) {
+            Counter score = new Counter();
+            Counter lives = new Counter(GameFlow.PLAYER_LIVES);
+
+            for (LevelInformation level : loadLevels(args[0])) {
+                GameWorld world = simulator.createWorld(level, score, lives);
+                SimulationResult result = simulator.run(world, new TrackingPaddleInput(world));
+                System.out.println("game " + game + " " + result);
+
+                played++;
+                if (result.isCleared()) {
+                    cleared++;
+                }
+
+                if (lives.getValue() == 0) {
+                    break;
+                }
+            }
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.println("levels played: " + played + ", cleared: " + cleared
+                + ", took " + String.format("%.2f", seconds) + "s");
+    }
+}
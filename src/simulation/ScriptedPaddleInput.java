@@ -0,0 +1,39 @@
+package simulation;
+
+import collidables.PaddleInput;
+
+/**
+ * Moves the paddle by a given script of directions, one direction
+ * for every paddle move. The paddle stays in place after the script ends.
+ *
+ * @author Shahaf Mordechay
+ */
+public class ScriptedPaddleInput implements PaddleInput {
+
+    // members
+    private int[] script;
+    private int next;
+
+    /**
+     * Constructs a paddle input from a script of directions.
+     *
+     * @param script the direction of each paddle move.
+     */
+    public ScriptedPaddleInput(int[] script) {
+        this.script = script;
+        this.next = 0;
+    }
+
+    /**
+     * The next direction in the script.
+     *
+     * @return LEFT, RIGHT or STAY.
+     */
+    public int direction() {
+        if (this.next >= this.script.length) {
+            return STAY;
+        }
+
+        return this.script[this.next++];
+    }
+}
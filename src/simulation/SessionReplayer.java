@@ -0,0 +1,293 @@
+package simulation;
+
+import collidables.KeyboardPaddleInput;
+import game.GameFlow;
+import game.GameWorld;
+import input.InputLog;
+import input.ReplayKeyboardSensor;
+import levels.LevelInformation;
+import other.Counter;
+import readers.LevelSpecificationReader;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Replays a game recorded by input.RecordingKeyboardSensor without a
+ * screen, as fast as possible.
+ * Every recorded level is played in a new world with the recorded keys,
+ * step by step, and every turn is checked to end on the recorded step.
+ * A recorded level is read from the level definitions file and index it
+ * was recorded with; only levels not read from a file are looked for by
+ * name in the given level definitions files.
+ *
+ * @author Shahaf Mordechay
+ */
+public class SessionReplayer {
+
+    // members
+    private List<String> definitions;
+    private HeadlessSimulator simulator;
+    private ReplayKeyboardSensor sensor;
+    private Counter score;
+    private Counter lives;
+    private GameWorld world;
+    private String levelName;
+    private double dt;
+    private int turns;
+    private int steps;
+    private int frames;
+    private List<SimulationResult> results;
+    private List<String> menuKeys;
+
+    /**
+     * Constructs a replayer of games played with the given levels.
+     *
+     * @param definitions the level definitions files the recorded levels
+     *                    are looked for in.
+     */
+    public SessionReplayer(List<String> definitions) {
+        this.definitions = definitions;
+        this.simulator = new HeadlessSimulator(0, 0);
+    }
+
+    /**
+     * Replay the given input log.
+     *
+     * @param in the input log.
+     * @return the outcome of every replayed level, in the played order.
+     * @throws IOException if the log cannot be read, or the replay does
+     *                     not play the way the recorded game did.
+     */
+    public List<SimulationResult> replay(DataInputStream in) throws IOException {
+        this.sensor = new ReplayKeyboardSensor();
+        this.score = new Counter();
+        this.lives = new Counter(GameFlow.PLAYER_LIVES);
+        this.world = null;
+        this.results = new ArrayList<>();
+        this.menuKeys = new ArrayList<>();
+
+        if (in.readInt() != InputLog.MAGIC || in.readShort() != InputLog.VERSION) {
+            throw new IOException("Not an input log of version " + InputLog.VERSION);
+        }
+
+        while (true) {
+            int type;
+            try {
+                type = in.readUnsignedByte();
+            } catch (EOFException e) {
+                break;
+            }
+
+            if (type == InputLog.KEY) {
+                this.sensor.defineKey(in.readUTF());
+            } else if (type == InputLog.MENU_KEY) {
+                this.menuKeys.add(this.sensor.getKey((int) InputLog.readNumber(in)));
+            } else if (type == InputLog.LEVEL) {
+                this.endLevel();
+                String definition = in.readUTF();
+                int index = (int) InputLog.readNumber(in);
+                this.startLevel(definition, index, in.readUTF(), in.readDouble());
+            } else if (type == InputLog.TURN) {
+                this.checkLevel();
+                this.world.createBalls();
+                this.sensor.setState(0);
+                this.turns++;
+                this.steps = 0;
+            } else if (type == InputLog.STATE) {
+                this.checkLevel();
+                this.stepTo(this.steps + (int) InputLog.readNumber(in));
+                this.sensor.setState(InputLog.readNumber(in));
+            } else if (type == InputLog.TURN_END) {
+                this.checkLevel();
+                this.stepTo((int) InputLog.readNumber(in));
+                if (!this.world.endTurnIfOver()) {
+                    throw this.diverged("the turn did not end");
+                }
+            } else {
+                throw new IOException("Unknown input log record: " + type);
+            }
+        }
+
+        this.endLevel();
+        return this.results;
+    }
+
+    /**
+     * Return the keys pressed outside of turns in the last replay, such as
+     * the menu selections.
+     *
+     * @return the pressed keys, in the pressed order.
+     */
+    public List<String> getMenuKeys() {
+        return this.menuKeys;
+    }
+
+    /**
+     * Create the world of a recorded level.
+     *
+     * @param definition the level definitions file the level was read
+     *                   from, empty if it was not read from a file.
+     * @param index      the index of the level in the file.
+     * @param name       the level name.
+     * @param levelDt    the amount of seconds each step of the level takes.
+     * @throws IOException if the level is not found.
+     */
+    private void startLevel(String definition, int index, String name, double levelDt)
+            throws IOException {
+        LevelInformation level;
+        if (definition.isEmpty()) {
+            level = this.findLevel(name);
+        } else {
+            level = readLevel(definition, index);
+        }
+
+        if (level == null || !level.levelName().equals(name)) {
+            String where = definition.isEmpty() ? "" : ", level " + (index + 1) + " of " + definition;
+            throw new IOException("Recorded level not found: " + name + where);
+        }
+
+        this.world = this.simulator.createWorld(level, this.score, this.lives);
+        this.world.initialize(new KeyboardPaddleInput(this.sensor));
+        this.levelName = name;
+        this.dt = levelDt;
+        this.turns = 0;
+        this.steps = 0;
+        this.frames = 0;
+    }
+
+    /**
+     * Add the outcome of the current level to the results.
+     */
+    private void endLevel() {
+        if (this.world == null) {
+            return;
+        }
+
+        this.results.add(new SimulationResult(this.levelName, this.world.getRemainingBlocks() == 0,
+                this.frames, this.frames * this.dt, this.turns, this.world.getScore(),
+                this.world.getLives()));
+        this.world = null;
+    }
+
+    /**
+     * Advance the current turn to the given step, with the current keys.
+     *
+     * @param step the step to advance to.
+     * @throws IOException if the turn ends before the step.
+     */
+    private void stepTo(int step) throws IOException {
+        while (this.steps < step) {
+            if (this.world.endTurnIfOver()) {
+                throw this.diverged("the turn ended early");
+            }
+
+            this.world.step(this.dt);
+            this.steps++;
+            this.frames++;
+        }
+    }
+
+    /**
+     * Check that a level was started.
+     *
+     * @throws IOException if there is no level.
+     */
+    private void checkLevel() throws IOException {
+        if (this.world == null) {
+            throw new IOException("Turn recorded outside of a level");
+        }
+    }
+
+    /**
+     * Return the error of a replay that does not play as recorded.
+     *
+     * @param reason what went differently.
+     * @return the error.
+     */
+    private IOException diverged(String reason) {
+        return new IOException("Replay diverged in " + this.levelName + ", turn " + this.turns
+                + ", step " + this.steps + ": " + reason);
+    }
+
+    /**
+     * Return a new level of the given index from a level definitions file.
+     *
+     * @param definition the level definitions file.
+     * @param index      the level index in the file.
+     * @return the level, null if the file has no such level.
+     */
+    private static LevelInformation readLevel(String definition, int index) {
+        List<Integer> firstLines = new ArrayList<>();
+        List<String> levelTexts = HeadlessSimulator.loadLevelTexts(definition, firstLines);
+        if (index >= levelTexts.size()) {
+            return null;
+        }
+
+        return new LevelSpecificationReader().levelFromText(levelTexts.get(index),
+                firstLines.get(index));
+    }
+
+    /**
+     * Return a new level with the given name from the level definitions.
+     *
+     * @param name the level name.
+     * @return the level, null if there is no such level.
+     */
+    private LevelInformation findLevel(String name) {
+        for (String definition : this.definitions) {
+            for (LevelInformation level : HeadlessSimulator.loadLevels(definition)) {
+                if (level.levelName().equals(name)) {
+                    return level;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Replay an input log and print the outcome of every level.
+     * Arguments: input log file, level definitions files to look for the
+     * recorded levels that were not read from a file in.
+     *
+     * @param args arguments passed to main.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println("usage: SessionReplayer <input log> [level definitions]...");
+            return;
+        }
+
+        List<String> definitions = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            definitions.add(args[i]);
+        }
+
+        SessionReplayer replayer = new SessionReplayer(definitions);
+        long start = System.nanoTime();
+
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(args[0])))) {
+            double played = 0;
+            for (SimulationResult result : replayer.replay(in)) {
+                System.out.println(result);
+                played += result.getSeconds();
+            }
+
+            double seconds = (System.nanoTime() - start) / 1e9;
+            System.out.println("menu keys: " + replayer.getMenuKeys());
+            System.out.println("replayed " + String.format("%.1f", played) + "s of play in "
+                    + String.format("%.2f", seconds) + "s");
+        } catch (IOException e) {
+            System.err.println("Failed replaying input log: " + args[0]);
+            e.printStackTrace(System.err);
+            System.exit(1);
+        }
+    }
+}
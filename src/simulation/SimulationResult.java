@@ -0,0 +1,113 @@
+package simulation;
+
+/**
+ * The outcome of a single simulated level.
+ *
+ * @author Shahaf Mordechay
+ */
+public class SimulationResult {
+
+    // members
+    private String levelName;
+    private boolean cleared;
+    private int frames;
+    private double seconds;
+    private int turns;
+    private int score;
+    private int livesLeft;
+
+    /**
+     * Constructs a new simulation result.
+     *
+     * @param levelName the simulated level name.
+     * @param cleared   true if all the level blocks were removed.
+     * @param frames    the number of simulated frames.
+     * @param seconds   the simulated game time.
+     * @param turns     the number of turns played.
+     * @param score     the player score at the end.
+     * @param livesLeft the player lives at the end.
+     */
+    public SimulationResult(String levelName, boolean cleared, int frames,
+                            double seconds, int turns, int score, int livesLeft) {
+        this.levelName = levelName;
+        this.cleared = cleared;
+        this.frames = frames;
+        this.seconds = seconds;
+        this.turns = turns;
+        this.score = score;
+        this.livesLeft = livesLeft;
+    }
+
+    /**
+     * Return the simulated level name.
+     *
+     * @return the level name.
+     */
+    public String getLevelName() {
+        return this.levelName;
+    }
+
+    /**
+     * Tells if all the level blocks were removed.
+     *
+     * @return true if the level was cleared.
+     */
+    public boolean isCleared() {
+        return this.cleared;
+    }
+
+    /**
+     * Return the number of simulated frames.
+     *
+     * @return the number of frames.
+     */
+    public int getFrames() {
+        return this.frames;
+    }
+
+    /**
+     * Return the simulated game time in seconds.
+     *
+     * @return the game time.
+     */
+    public double getSeconds() {
+        return this.seconds;
+    }
+
+    /**
+     * Return the number of turns played.
+     *
+     * @return the number of turns.
+     */
+    public int getTurns() {
+        return this.turns;
+    }
+
+    /**
+     * Return the player score at the end of the level.
+     *
+     * @return the player score.
+     */
+    public int getScore() {
+        return this.score;
+    }
+
+    /**
+     * Return the player lives at the end of the level.
+     *
+     * @return the player lives.
+     */
+    public int getLivesLeft() {
+        return this.livesLeft;
+    }
+
+    @Override
+    public String toString() {
+        return this.levelName + ": cleared=" + this.cleared
+                + " frames=" + this.frames
+                + " seconds=" + String.format("%.2f", this.seconds)
+                + " turns=" + this.turns
+                + " score=" + this.score
+                + " lives=" + this.livesLeft;
+    }
+}
@@ -0,0 +1,86 @@
+package simulation;
+
+import collidables.Paddle;
+import collidables.PaddleInput;
+import game.GameWorld;
+import geometry.Rectangle;
+import sprites.Ball;
+
+import java.util.List;
+
+/**
+ * A computer player that keeps the paddle under the lowest falling ball.
+ *
+ * @author Shahaf Mordechay
+ */
+public class TrackingPaddleInput implements PaddleInput {
+
+    // distance from the paddle center that is close enough
+    private static final double DEAD_ZONE = 4;
+
+    // member
+    private GameWorld world;
+
+    /**
+     * Constructs a computer player of the given world.
+     *
+     * @param world the world to play in.
+     */
+    public TrackingPaddleInput(GameWorld world) {
+        this.world = world;
+    }
+
+    /**
+     * Move toward the lowest ball that falls, or the lowest ball if
+     * none of them falls.
+     *
+     * @return LEFT, RIGHT or STAY.
+     */
+    public int direction() {
+        Paddle paddle = this.world.getPaddle();
+        List<Ball> balls = this.world.getBalls();
+        Ball target = null;
+
+        for (int i = 0; i < balls.size(); i++) {
+            Ball ball = balls.get(i);
+            if (target == null || isBetterTarget(ball, target)) {
+                target = ball;
+            }
+        }
+
+        if (paddle == null || target == null) {
+            return STAY;
+        }
+
+        Rectangle paddleRec = paddle.getCollisionRectangle();
+        double paddleCenter = paddleRec.getUpperLeft().getX() + paddleRec.getWidth() / 2;
+        double ballX = target.getCenter().getX();
+
+        if (ballX < paddleCenter - DEAD_ZONE) {
+            return LEFT;
+        } else if (ballX > paddleCenter + DEAD_ZONE) {
+            return RIGHT;
+        }
+
+        return STAY;
+    }
+
+    /**
+     * Tells if a ball is a better target than the current one.
+     * Falling balls come first, then lower balls.
+     *
+     * @param ball    the ball to check.
+     * @param current the current target.
+     * @return true if ball is a better target.
+     */
+    private static boolean isBetterTarget(Ball ball, Ball current) {
+        boolean falling = ball.getVelocity().getDy() > 0;
+        boolean currentFalling = current.getVelocity().getDy() > 0;
+
+        if (falling != currentFalling) {
+            return falling;
+        }
+
+        return ball.getCenter().getY() > current.getCenter().getY();
+    }
+}
@@ -1,6 +1,7 @@
 package sprites;
 
 import biuoop.DrawSurface;
+import other.Fill;
 
 import java.awt.Color;
 import java.awt.Image;
@@ -15,6 +16,7 @@ public class Background implements Sprite {
     // members
     private Color color;
     private Image image;
+    private Fill fill;
 
     /**
      * Constructs a background by color.
@@ -24,6 +26,7 @@ public class Background implements Sprite {
     public Background(Color color) {
         this.color = color;
         this.image = null;
+        this.fill = new Fill(color);
     }
 
     /**
@@ -34,6 +37,27 @@ public class Background implements Sprite {
     public Background(Image image) {
         this.color = null;
         this.image = image;
+        this.fill = new Fill(image);
+    }
+
+    /**
+     * Constructs a background by a color or an image fill.
+     *
+     * @param fill the background fill.
+     */
+    public Background(Fill fill) {
+        this.color = fill.getColor();
+        this.image = fill.getImage();
+        this.fill = fill;
+    }
+
+    /**
+     * Return the background fill.
+     *
+     * @return the background color or image fill.
+     */
+    public Fill getFill() {
+        return this.fill;
     }
 
     /**
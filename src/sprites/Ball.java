@@ -1,12 +1,12 @@
 package sprites;
 
 import biuoop.DrawSurface;
-import geometry.Line;
 import geometry.Point;
+import collidables.Collidable;
 import other.Velocity;
 import game.GameEnvironment;
-import game.CollisionInfo;
-import game.GameLevel;
+import game.CollisionResult;
+import game.GameWorld;
 
 import java.awt.Color;
 
@@ -16,13 +16,25 @@ import java.awt.Color;
  *
  * @author Shahaf Mordechay
  */
-public class Ball implements Sprite {
+public class Ball implements InterpolatedSprite {
+
+    // collisions handled in a single move
+    private static final int MAX_HITS_PER_MOVE = 4;
+
+    // the most part of a move a collision right after a bounce is ignored within
+    private static final double TOUCH_TIME = 1e-9;
 
     private Point center;
+    private Point previousCenter;
     private int r;
     private java.awt.Color color;
     private Velocity velocity;
     private GameEnvironment environment;
+    private CollisionResult collision;
+    private Point collisionPoint;
+    private boolean removed;
+    private boolean planned;
+    private long plannedBlockAdditions;
 
     /**
      * Constructs and initializes a ball with a specified
@@ -35,9 +47,14 @@ public class Ball implements Sprite {
      */
     public Ball(Point center, int r, Color color, GameEnvironment environment) {
         this.center = center;
+        this.previousCenter = new Point(center.getX(), center.getY());
         this.r = r;
         this.color = color;
         this.environment = environment;
+        this.collision = new CollisionResult();
+        this.collisionPoint = new Point(0, 0);
+        this.removed = false;
+        this.planned = false;
     }
 
     /**
@@ -52,9 +69,14 @@ public class Ball implements Sprite {
      */
     public Ball(int x, int y, int r, Color color, GameEnvironment environment) {
         this.center = new Point(x, y);
+        this.previousCenter = new Point(x, y);
         this.r = r;
         this.color = color;
         this.environment = environment;
+        this.collision = new CollisionResult();
+        this.collisionPoint = new Point(0, 0);
+        this.removed = false;
+        this.planned = false;
     }
 
     /**
@@ -76,6 +98,26 @@ public class Ball implements Sprite {
         this.velocity = new Velocity(dx, dy);
     }
 
+    /**
+     * Returns the velocity of this ball.
+     *
+     * @return this ball velocity.
+     */
+    public Velocity getVelocity() {
+        return this.velocity;
+    }
+
+    /**
+     * Returns the center point of this ball.
+     * The ball moves this point in place, so it always holds the current
+     * center.
+     *
+     * @return this ball center point.
+     */
+    public Point getCenter() {
+        return this.center;
+    }
+
     /**
      * Returns the radius of this ball.
      *
@@ -94,14 +136,39 @@ public class Ball implements Sprite {
         return this.color;
     }
 
+    /**
+     * Tells if this ball was removed from the game.
+     *
+     * @return true if the ball was removed.
+     */
+    public boolean isRemoved() {
+        return this.removed;
+    }
+
     /**
      * Draws this ball on the draw surface.
      *
      * @param d the surface for the ball to be drawn on.
      */
     public void drawOn(DrawSurface d) {
-        int xCoordinate = (int) this.center.getX();
-        int yCoordinate = (int) this.center.getY();
+        this.drawOn(d, 1);
+    }
+
+    /**
+     * Draw the ball on a given surface, between its center before the
+     * last move and its current one.
+     *
+     * @param d     the surface to draw on.
+     * @param alpha 0 to draw the ball at its previous center, 1 to draw
+     *              it at its current one.
+     */
+    public void drawOn(DrawSurface d, double alpha) {
+        double x = this.previousCenter.getX()
+                + (this.center.getX() - this.previousCenter.getX()) * alpha;
+        double y = this.previousCenter.getY()
+                + (this.center.getY() - this.previousCenter.getY()) * alpha;
+        int xCoordinate = (int) x;
+        int yCoordinate = (int) y;
 
         d.setColor(this.color);
         d.fillCircle(xCoordinate, yCoordinate, this.r);
@@ -110,57 +177,133 @@ public class Ball implements Sprite {
 
     }
 
+    /**
+     * Look for the first block this ball will collide with in its next
+     * move, without moving the ball or hitting the block.
+     * The search only reads the environment, so the balls of a world may
+     * plan their moves at the same time, and the next call to timePassed
+     * uses the plan instead of searching the blocks again, as long as no
+     * block was added and the planned block was not removed or used up
+     * meanwhile.
+     *
+     * @param dt the amount of seconds the next move takes.
+     */
+    public void planMove(double dt) {
+
+        // velocity not set
+        if (velocity == null) {
+            this.velocity = new Velocity(1, 1);
+        }
+
+        double x = this.center.getX();
+        double y = this.center.getY();
+        this.plannedBlockAdditions = this.environment.getBlockAdditions();
+        this.environment.findClosestBlockCollision(x, y,
+                x + this.velocity.getDx() * dt, y + this.velocity.getDy() * dt,
+                this.r, this.collision);
+        this.planned = true;
+    }
+
     /**
      * Moving the ball by changing this ball center coordinates
      * by adding the velocity dx, dy.
-     * negates the dx, dy in case of collision.
+     * The ball is swept as a circle along its route, so it cannot pass
+     * through a collidable between two calls. On a collision the ball
+     * moves until it touches the collidable, bounces, and keeps moving
+     * for the rest of the time, up to a few collisions per call.
+     * The ball points are moved in place, so a move without collisions
+     * creates no new objects.
      *
      * @param dt the amount of seconds passed since the last call.
      */
     public void timePassed(double dt) {
-        double velocityDx = this.velocity.getDx() * dt;
-        double velocityDy = this.velocity.getDy() * dt;
 
         // velocity not set
         if (velocity == null) {
             this.velocity = new Velocity(1, 1);
         }
 
-        int dxR = this.r;
-        if (this.velocity.getDx() < 0) {
-            dxR = -dxR;
-        }
+        this.previousCenter.setLocation(this.center.getX(), this.center.getY());
+        double x = this.center.getX();
+        double y = this.center.getY();
 
-        int dyR = this.r;
-        if (this.velocity.getDy() < 0) {
-            dyR = -dyR;
-        }
+        // part of dt left to move
+        double timeLeft = 1;
+
+        // the collidable the ball last bounced off in this move
+        Collidable bounced = null;
 
-        // trajectory end point
-        double trajPointX = this.center.getX() + velocityDx + dxR;
-        double trajPointY = this.center.getY() + velocityDy + dyR;
-        Point trajectoryPoint = new Point(trajPointX, trajPointY);
+        for (int i = 0; i < MAX_HITS_PER_MOVE && timeLeft > 0 && !this.removed; i++) {
+            double moveX = this.velocity.getDx() * dt * timeLeft;
+            double moveY = this.velocity.getDy() * dt * timeLeft;
 
-        // trajectory line
-        Line trajectory = new Line(this.center, trajectoryPoint);
+            // the blocks part of the first search may be planned already
+            if (i > 0 || !this.isPlanValid()) {
+                this.environment.findClosestBlockCollision(x, y, x + moveX, y + moveY,
+                        this.r, this.collision);
+            }
 
-        CollisionInfo collisionInfo = this.environment.getClosestCollision(trajectory);
+            // no collision
+            if (!this.environment.offerMovingCollisions(x, y, x + moveX, y + moveY,
+                    this.r, this.collision)) {
+                x += moveX;
+                y += moveY;
+                break;
+            }
 
-        // no collision
-        if (collisionInfo == null) {
-            this.center = new Velocity(velocityDx, velocityDy).applyToPoint(this.center);
+            /* a ball that bounced off a collidable may still touch it, and
+             * is not hit by it again once it moves away from it */
+            double t = this.collision.getTime();
+            if (t <= TOUCH_TIME && this.collision.getCollidable() == bounced
+                    && this.isMovingAway(x, y)) {
+                x += moveX;
+                y += moveY;
+                break;
+            }
 
-        // collision detected
-        } else {
             // move until ball touches the collidable
-            double dx = collisionInfo.collisionPoint().getX() - (this.center.getX() + dxR);
-            double dy = collisionInfo.collisionPoint().getY() - (this.center.getY() + dyR);
-            Velocity remainder = new Velocity(dx * dt, dy * dt);
-            this.center = remainder.applyToPoint(this.center);
+            x += moveX * t;
+            y += moveY * t;
+            timeLeft *= 1 - t;
 
             // bounce to opposite direction
-            this.velocity = collisionInfo.collisionObject().hit(this, collisionInfo.collisionPoint(), this.velocity);
+            this.collisionPoint.setLocation(this.collision.getX(), this.collision.getY());
+            bounced = this.collision.getCollidable();
+            this.velocity = bounced.hit(this, this.collisionPoint, this.velocity);
+        }
+
+        this.planned = false;
+        this.center.setLocation(x, y);
+    }
+
+    /**
+     * Tell if the ball moves away from the point of the collision found
+     * last: its velocity points from the touched point to its center.
+     *
+     * @param x the ball center x coordinate.
+     * @param y the ball center y coordinate.
+     * @return true if the ball moves away from the touched point.
+     */
+    private boolean isMovingAway(double x, double y) {
+        return (x - this.collision.getX()) * this.velocity.getDx()
+                + (y - this.collision.getY()) * this.velocity.getDy() > 0;
+    }
+
+    /**
+     * Tell if the planned block collision is still the closest one.
+     * Removing or using up a block that is not the planned one cannot
+     * make another block closer, but adding a block can.
+     *
+     * @return true if the move was planned and the plan still holds.
+     */
+    private boolean isPlanValid() {
+        if (!this.planned
+                || this.plannedBlockAdditions != this.environment.getBlockAdditions()) {
+            return false;
         }
+
+        return !this.collision.isFound()
+                || this.environment.isCollidable(this.collision.getCollidable());
     }
 
     /**
@@ -168,16 +311,19 @@ public class Ball implements Sprite {
      *
      * @param g the game to add this ball to.
      */
-    public void addToGame(GameLevel g) {
-        g.addSprite(this);
+    public void addToGame(GameWorld g) {
+        g.addBall(this);
+        this.removed = false;
     }
 
     /**
      * Remove this ball from game sprites.
      *
-     * @param gameLevel the game to remove the ball from.
+     * @param gameWorld the game to remove the ball from.
      */
-    public void removeFromGame(GameLevel gameLevel) {
-        gameLevel.removeSprite(this);
+    public void removeFromGame(GameWorld gameWorld) {
+        gameWorld.removeBall(this);
+        this.removed = true;
+        this.planned = false;
     }
 }
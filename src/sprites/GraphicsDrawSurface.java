@@ -0,0 +1,194 @@
+package sprites;
+
+import biuoop.AlphaChannelNotSupportedException;
+import biuoop.DrawSurface;
+
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Image;
+import java.awt.Polygon;
+
+/**
+ * A draw surface that draws straight on a graphics object, such as the
+ * graphics of an offscreen image, the same way the gui surface does.
+ *
+ * @author Shahaf Mordechay
+ */
+public class GraphicsDrawSurface implements DrawSurface {
+
+    // members
+    private Graphics graphics;
+    private int width;
+    private int height;
+
+    /**
+     * Constructs a new draw surface over the given graphics.
+     *
+     * @param graphics the graphics to draw with.
+     * @param width    the width of the drawing area.
+     * @param height   the height of the drawing area.
+     */
+    public GraphicsDrawSurface(Graphics graphics, int width, int height) {
+        this.graphics = graphics;
+        this.width = width;
+        this.height = height;
+    }
+
+    /**
+     * Return the width of the drawing area.
+     *
+     * @return the surface width.
+     */
+    public int getWidth() {
+        return this.width;
+    }
+
+    /**
+     * Return the height of the drawing area.
+     *
+     * @return the surface height.
+     */
+    public int getHeight() {
+        return this.height;
+    }
+
+    /**
+     * Set the color of the next shapes.
+     *
+     * @param color the color to draw with.
+     */
+    public void setColor(Color color) {
+        if (color.getAlpha() != 255) {
+            throw new AlphaChannelNotSupportedException(
+                    "alpha channel is not supported: " + color.getAlpha());
+        }
+
+        this.graphics.setColor(color);
+    }
+
+    /**
+     * Draw a line between two points.
+     *
+     * @param x1 first point x coordinate.
+     * @param y1 first point y coordinate.
+     * @param x2 second point x coordinate.
+     * @param y2 second point y coordinate.
+     */
+    public void drawLine(int x1, int y1, int x2, int y2) {
+        this.graphics.drawLine(x1, y1, x2, y2);
+    }
+
+    /**
+     * Draw the outline of an oval.
+     *
+     * @param x      bounding box left x coordinate.
+     * @param y      bounding box upper y coordinate.
+     * @param width  the oval width.
+     * @param height the oval height.
+     */
+    public void drawOval(int x, int y, int width, int height) {
+        this.graphics.drawOval(x, y, width, height);
+    }
+
+    /**
+     * Fill an oval.
+     *
+     * @param x      bounding box left x coordinate.
+     * @param y      bounding box upper y coordinate.
+     * @param width  the oval width.
+     * @param height the oval height.
+     */
+    public void fillOval(int x, int y, int width, int height) {
+        this.graphics.fillOval(x, y, width, height);
+    }
+
+    /**
+     * Draw the outline of a rectangle.
+     *
+     * @param x      left x coordinate.
+     * @param y      upper y coordinate.
+     * @param width  the rectangle width.
+     * @param height the rectangle height.
+     */
+    public void drawRectangle(int x, int y, int width, int height) {
+        this.graphics.drawRect(x, y, width, height);
+    }
+
+    /**
+     * Fill a rectangle.
+     *
+     * @param x      left x coordinate.
+     * @param y      upper y coordinate.
+     * @param width  the rectangle width.
+     * @param height the rectangle height.
+     */
+    public void fillRectangle(int x, int y, int width, int height) {
+        this.graphics.fillRect(x, y, width, height);
+    }
+
+    /**
+     * Draw an image with its upper left corner at the given point.
+     *
+     * @param x     left x coordinate.
+     * @param y     upper y coordinate.
+     * @param image the image to draw.
+     */
+    public void drawImage(int x, int y, Image image) {
+        this.graphics.drawImage(image, x, y, null);
+    }
+
+    /**
+     * Draw the outline of a circle.
+     *
+     * @param x      center x coordinate.
+     * @param y      center y coordinate.
+     * @param radius the circle radius.
+     */
+    public void drawCircle(int x, int y, int radius) {
+        this.graphics.drawOval(x - radius, y - radius, radius * 2, radius * 2);
+    }
+
+    /**
+     * Fill a circle.
+     *
+     * @param x      center x coordinate.
+     * @param y      center y coordinate.
+     * @param radius the circle radius.
+     */
+    public void fillCircle(int x, int y, int radius) {
+        this.graphics.fillOval(x - radius, y - radius, radius * 2, radius * 2);
+    }
+
+    /**
+     * Draw a text with its baseline starting at the given point.
+     *
+     * @param x        left x coordinate.
+     * @param y        baseline y coordinate.
+     * @param text     the text to draw.
+     * @param fontSize the text font size.
+     */
+    public void drawText(int x, int y, String text, int fontSize) {
+        Font font = this.graphics.getFont();
+        this.graphics.setFont(new Font(font.getFontName(), font.getStyle(), fontSize));
+        this.graphics.drawString(text, x, y);
+    }
+
+    /**
+     * Draw the outline of a polygon.
+     *
+     * @param polygon the polygon to draw.
+     */
+    public void drawPolygon(Polygon polygon) {
+        this.graphics.drawPolygon(polygon);
+    }
+
+    /**
+     * Fill a polygon.
+     *
+     * @param polygon the polygon to fill.
+     */
+    public void fillPolygon(Polygon polygon) {
+        this.graphics.fillPolygon(polygon);
+    }
+}
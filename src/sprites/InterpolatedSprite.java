@@ -0,0 +1,21 @@
+package sprites;
+
+import biuoop.DrawSurface;
+
+/**
+ * A sprite that remembers where it was before its last move, so it can
+ * be drawn anywhere between that place and its current one.
+ *
+ * @author Shahaf Mordechay
+ */
+public interface InterpolatedSprite extends Sprite {
+
+    /**
+     * draw the sprite to the screen between its previous and current place.
+     *
+     * @param d     the screen to draw on.
+     * @param alpha 0 to draw the sprite at its previous place, 1 to draw
+     *              it at its current one.
+     */
+    void drawOn(DrawSurface d, double alpha);
+}
@@ -2,33 +2,71 @@ package sprites;
 
 import biuoop.DrawSurface;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * List of all sprites(drawable objects) in game.
+ * The sprites are kept in an array, and each sprite index is kept in a
+ * map, so a sprite is removed in constant time by moving the last sprite
+ * into its place.
+ * Sprites added or removed while the collection is being iterated over
+ * (for example by a hit listener) are only added or removed once the
+ * iteration is over, and a sprite waiting to be removed is skipped.
  *
  * @author Shahaf Mordechay
  */
 public class SpriteCollection {
 
-    // member
-    private LinkedList<Sprite> spriteList;
+    // initial array capacity
+    private static final int INITIAL_CAPACITY = 16;
+
+    // members
+    private Sprite[] spriteArray;
+    private boolean[] removing;
+    private int size;
+    private Map<Sprite, Integer> indices;
+    private int iterating;
+    private List<Sprite> pendingAdds;
+    private List<Sprite> pendingRemovals;
 
     /**
      * Constructs and initializes a list that will hold all of the
      * sprite objects.
      */
     public SpriteCollection() {
-        this.spriteList = new LinkedList<>();
+        this.spriteArray = new Sprite[INITIAL_CAPACITY];
+        this.removing = new boolean[INITIAL_CAPACITY];
+        this.size = 0;
+        this.indices = new IdentityHashMap<>();
+        this.iterating = 0;
+        this.pendingAdds = new ArrayList<>();
+        this.pendingRemovals = new ArrayList<>();
     }
 
     /**
      * Add the given sprite to the sprite list.
+     * A sprite that is already in the list is not added again.
      *
      * @param s the sprite to add to sprite list.
      */
     public void addSprite(Sprite s) {
-        spriteList.add(s);
+        Integer index = this.indices.get(s);
+
+        if (this.iterating > 0) {
+            if (index != null && this.removing[index]) {
+                this.removing[index] = false;
+            } else if (index == null && !this.pendingAdds.contains(s)) {
+                this.pendingAdds.add(s);
+            }
+            return;
+        }
+
+        if (index == null) {
+            this.append(s);
+        }
     }
 
     /**
@@ -37,7 +75,30 @@ public class SpriteCollection {
      * @param s the sprite to remove from sprite list.
      */
     public void removeSprite(Sprite s) {
-        this.spriteList.remove(s);
+        Integer index = this.indices.get(s);
+
+        if (this.iterating > 0) {
+            if (index == null) {
+                this.pendingAdds.remove(s);
+            } else if (!this.removing[index]) {
+                this.removing[index] = true;
+                this.pendingRemovals.add(s);
+            }
+            return;
+        }
+
+        if (index != null) {
+            this.removeAt(index);
+        }
+    }
+
+    /**
+     * Return the number of sprites in the sprite list.
+     *
+     * @return the number of sprites.
+     */
+    public int size() {
+        return this.size;
     }
 
     /**
@@ -46,9 +107,15 @@ public class SpriteCollection {
      * @param dt the amount of seconds passed since the last call.
      */
     public void notifyAllTimePassed(double dt) {
-
-        for (int i = 0; i < this.spriteList.size(); i++) {
-            spriteList.get(i).timePassed(dt);
+        this.iterating++;
+        try {
+            for (int i = 0; i < this.size; i++) {
+                if (!this.removing[i]) {
+                    this.spriteArray[i].timePassed(dt);
+                }
+            }
+        } finally {
+            this.endIteration();
         }
     }
 
@@ -58,8 +125,110 @@ public class SpriteCollection {
      * @param d the surface to draw on(screen).
      */
     public void drawAllOn(DrawSurface d) {
-        for (Sprite sprite : spriteList) {
-            sprite.drawOn(d);
+        this.iterating++;
+        try {
+            for (int i = 0; i < this.size; i++) {
+                if (!this.removing[i]) {
+                    this.spriteArray[i].drawOn(d);
+                }
+            }
+        } finally {
+            this.endIteration();
+        }
+    }
+
+    /**
+     * Call drawSelection function on all sprites, drawing the ones that
+     * move between their previous and current place.
+     *
+     * @param d     the surface to draw on(screen).
+     * @param alpha how far between the previous and current place to draw
+     *              the moving sprites, from 0 to 1.
+     */
+    public void drawAllOn(DrawSurface d, double alpha) {
+        this.iterating++;
+        try {
+            for (int i = 0; i < this.size; i++) {
+                if (this.removing[i]) {
+                    continue;
+                }
+
+                Sprite sprite = this.spriteArray[i];
+                if (sprite instanceof InterpolatedSprite) {
+                    ((InterpolatedSprite) sprite).drawOn(d, alpha);
+                } else {
+                    sprite.drawOn(d);
+                }
+            }
+        } finally {
+            this.endIteration();
+        }
+    }
+
+    /**
+     * End an iteration over the sprites, and once no iteration is left
+     * apply the removals and additions that were asked for meanwhile.
+     */
+    private void endIteration() {
+        this.iterating--;
+        if (this.iterating > 0) {
+            return;
+        }
+
+        for (int i = 0; i < this.pendingRemovals.size(); i++) {
+            Sprite s = this.pendingRemovals.get(i);
+            Integer index = this.indices.get(s);
+            if (index != null && this.removing[index]) {
+                this.removeAt(index);
+            }
         }
+        this.pendingRemovals.clear();
+
+        for (int i = 0; i < this.pendingAdds.size(); i++) {
+            this.append(this.pendingAdds.get(i));
+        }
+        this.pendingAdds.clear();
+    }
+
+    /**
+     * Add the given sprite at the end of the array, growing it if it is full.
+     *
+     * @param s the sprite to add.
+     */
+    private void append(Sprite s) {
+        if (this.size == this.spriteArray.length) {
+            Sprite[] grownSprites = new Sprite[this.size * 2];
+            boolean[] grownRemoving = new boolean[this.size * 2];
+            System.arraycopy(this.spriteArray, 0, grownSprites, 0, this.size);
+            System.arraycopy(this.removing, 0, grownRemoving, 0, this.size);
+            this.spriteArray = grownSprites;
+            this.removing = grownRemoving;
+        }
+
+        this.spriteArray[this.size] = s;
+        this.removing[this.size] = false;
+        this.indices.put(s, this.size);
+        this.size++;
+    }
+
+    /**
+     * Remove the sprite at the given index by moving the last sprite
+     * into its place.
+     *
+     * @param index the index of the sprite to remove.
+     */
+    private void removeAt(int index) {
+        int last = this.size - 1;
+        this.indices.remove(this.spriteArray[index]);
+
+        if (index != last) {
+            this.spriteArray[index] = this.spriteArray[last];
+            this.removing[index] = this.removing[last];
+            this.indices.put(this.spriteArray[index], index);
+        }
+
+        this.spriteArray[last] = null;
+        this.removing[last] = false;
+        this.size = last;
     }
 }
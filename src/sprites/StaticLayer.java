@@ -0,0 +1,197 @@
+package sprites;
+
+import biuoop.DrawSurface;
+import collidables.Block;
+import game.HitNotifier;
+import hitlisteners.HitListener;
+
+import java.awt.Graphics;
+import java.awt.GraphicsEnvironment;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A layer of sprites that do not move, such as the background and the
+ * blocks, drawn once to an offscreen image.
+ * Every frame the image is drawn in a single call, and it is drawn again
+ * only after a sprite was added or removed, or one of its blocks was hit
+ * and may have changed its fill.
+ * A block that is added, removed or hit only changes the image under its
+ * own bounds, so only that region of the offscreen image is drawn again,
+ * clipped, from the sprites that cover it, instead of the whole
+ * background and every block.
+ * This only saves drawing the offscreen image: the whole image is still
+ * drawn on the screen every frame, since every frame is drawn on a new
+ * blank surface.
+ *
+ * @author Shahaf Mordechay
+ */
+public class StaticLayer implements Sprite, HitListener {
+
+    // members
+    private List<Sprite> spriteList;
+    private BufferedImage image;
+    private Rectangle changed;
+    private boolean hasChanged;
+    private Rectangle blockBounds;
+    private int width;
+    private int height;
+
+    /**
+     * Constructs an empty layer in a specified size.
+     *
+     * @param width  the layer width.
+     * @param height the layer height.
+     */
+    public StaticLayer(int width, int height) {
+        this.spriteList = new ArrayList<>();
+        this.image = null;
+        this.width = width;
+        this.height = height;
+        this.changed = new Rectangle(0, 0, width, height);
+        this.hasChanged = true;
+        this.blockBounds = new Rectangle();
+    }
+
+    /**
+     * Add the given sprite on top of the layer sprites.
+     * A sprite that notifies hits is redrawn when it is hit.
+     *
+     * @param s the sprite to add.
+     */
+    public void addSprite(Sprite s) {
+        this.spriteList.add(s);
+        if (s instanceof HitNotifier) {
+            ((HitNotifier) s).addHitListener(this);
+        }
+
+        this.markChanged(s);
+    }
+
+    /**
+     * Remove the given sprite from the layer.
+     *
+     * @param s the sprite to remove.
+     */
+    public void removeSprite(Sprite s) {
+        if (this.spriteList.remove(s)) {
+            if (s instanceof HitNotifier) {
+                ((HitNotifier) s).removeHitListener(this);
+            }
+
+            this.markChanged(s);
+        }
+    }
+
+    /**
+     * Mark the layer to be drawn again, since the hit block may look
+     * different now.
+     *
+     * @param beingHit the block that was hit.
+     * @param hitter   the ball that hit the block.
+     */
+    public void hitEvent(Block beingHit, Ball hitter) {
+        this.markChanged(beingHit);
+    }
+
+    /**
+     * Add the region the given sprite covers to the region of the image
+     * that is out of date. A sprite that is not a block may cover the
+     * whole layer.
+     *
+     * @param s the sprite that changed.
+     */
+    private void markChanged(Sprite s) {
+        Rectangle bounds = this.blockBounds;
+        if (s instanceof Block) {
+            bounds((Block) s, bounds);
+        } else {
+            bounds.setBounds(0, 0, this.width, this.height);
+        }
+
+        if (!this.hasChanged) {
+            this.changed.setBounds(bounds);
+            this.hasChanged = true;
+        } else {
+            this.changed.add(bounds);
+        }
+    }
+
+    /**
+     * Set the given rectangle to the pixels a block is drawn on, including
+     * its stroke.
+     *
+     * @param block  the block.
+     * @param bounds the rectangle to set to the block bounds.
+     */
+    private static void bounds(Block block, Rectangle bounds) {
+        bounds.setBounds((int) block.getUpperLeft().getX(), (int) block.getUpperLeft().getY(),
+                (int) block.getCollisionRectangle().getWidth() + 1,
+                (int) block.getCollisionRectangle().getHeight() + 1);
+    }
+
+    /**
+     * Draw the whole layer image on a given surface, drawing the out of
+     * date region of the image first.
+     *
+     * @param d the screen to draw on.
+     */
+    public void drawOn(DrawSurface d) {
+        if (this.image == null) {
+            this.image = this.createImage();
+            this.changed.setBounds(0, 0, this.width, this.height);
+            this.hasChanged = true;
+        }
+
+        if (this.hasChanged) {
+            Graphics graphics = this.image.getGraphics();
+            graphics.setClip(this.changed);
+            DrawSurface surface = new GraphicsDrawSurface(graphics, this.width, this.height);
+            for (int i = 0; i < this.spriteList.size(); i++) {
+                Sprite sprite = this.spriteList.get(i);
+                if (!(sprite instanceof Block)) {
+                    sprite.drawOn(surface);
+                    continue;
+                }
+
+                bounds((Block) sprite, this.blockBounds);
+                if (this.changed.intersects(this.blockBounds)) {
+                    sprite.drawOn(surface);
+                }
+            }
+
+            graphics.dispose();
+            this.hasChanged = false;
+        }
+
+        d.drawImage(0, 0, this.image);
+    }
+
+    /**
+     * Create the layer image, in the screen pixel format when there is a
+     * screen so it is drawn accelerated.
+     *
+     * @return a new opaque image in the layer size.
+     */
+    private BufferedImage createImage() {
+        if (GraphicsEnvironment.isHeadless()) {
+            return new BufferedImage(this.width, this.height, BufferedImage.TYPE_INT_RGB);
+        }
+
+        return GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                .getDefaultConfiguration().createCompatibleImage(this.width, this.height);
+    }
+
+    /**
+     * Notify the layer sprites that time has passed.
+     *
+     * @param dt the amount of seconds passed since the last call.
+     */
+    public void timePassed(double dt) {
+        for (int i = 0; i < this.spriteList.size(); i++) {
+            this.spriteList.get(i).timePassed(dt);
+        }
+    }
+}